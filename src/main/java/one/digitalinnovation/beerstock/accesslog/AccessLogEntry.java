@@ -0,0 +1,57 @@
+package one.digitalinnovation.beerstock.accesslog;
+
+/**
+ * One served request. {@code beerId} is the id or name path variable of the request, null when it has none.
+ */
+public record AccessLogEntry(long timestampMillis, String method, String endpoint, String beerId, int status,
+                             long latencyMicros) {
+
+    public String outcome() {
+        if (status >= 500) {
+            return "server_error";
+        }
+        if (status >= 400) {
+            return "client_error";
+        }
+        return "success";
+    }
+
+    public void appendJson(StringBuilder json) {
+        json.append("{\"ts\":").append(timestampMillis)
+                .append(",\"method\":\"").append(method)
+                .append("\",\"endpoint\":");
+        appendString(json, endpoint);
+        json.append(",\"beerId\":");
+        appendString(json, beerId);
+        json.append(",\"status\":").append(status)
+                .append(",\"outcome\":\"").append(outcome())
+                .append("\",\"latencyMicros\":").append(latencyMicros)
+                .append('}');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,56 @@
+package one.digitalinnovation.beerstock.accesslog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records every request into the access log ring buffer. The endpoint is the matched route pattern, so
+ * entries for different beers group under the same endpoint.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogRingBuffer<AccessLogEntry> ringBuffer;
+
+    public AccessLogFilter(AccessLogRingBuffer<AccessLogEntry> ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long latencyMicros = (System.nanoTime() - start) / 1_000;
+            ringBuffer.offer(new AccessLogEntry(System.currentTimeMillis(), request.getMethod(), endpoint(request),
+                    beerId(request), failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                    latencyMicros));
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String beerId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?>)) {
+            return null;
+        }
+        Map<String, String> uriVariables = (Map<String, String>) variables;
+        String id = uriVariables.get("id");
+        return id != null ? id : uriVariables.get("name");
+    }
+}
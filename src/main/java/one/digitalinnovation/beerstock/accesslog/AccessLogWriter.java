@@ -0,0 +1,72 @@
+package one.digitalinnovation.beerstock.accesslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Drains the ring buffer on a dedicated daemon thread and writes each entry as one JSON line to the
+ * {@value #LOGGER_NAME} logger, so request threads never wait on the log appender. Entries dropped
+ * because the ring was full are reported as a summary line.
+ */
+public class AccessLogWriter implements AutoCloseable {
+
+    public static final String LOGGER_NAME = "beerstock.access";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final AccessLogRingBuffer<AccessLogEntry> ringBuffer;
+    private final long idleSleepMillis;
+    private final Thread thread;
+    private final StringBuilder line = new StringBuilder(256);
+    private long reportedDropped;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogRingBuffer<AccessLogEntry> ringBuffer, Duration idleSleep) {
+        this.ringBuffer = ringBuffer;
+        this.idleSleepMillis = Math.max(1, idleSleep.toMillis());
+        this.thread = Thread.ofPlatform().daemon().name("beerstock-access-log").unstarted(this::drainLoop);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                try {
+                    Thread.sleep(idleSleepMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+        drain();
+    }
+
+    int drain() {
+        int written = 0;
+        AccessLogEntry entry;
+        while ((entry = ringBuffer.poll()) != null) {
+            line.setLength(0);
+            entry.appendJson(line);
+            ACCESS_LOG.info(line.toString());
+            written++;
+        }
+        long dropped = ringBuffer.droppedCount();
+        if (dropped != reportedDropped) {
+            ACCESS_LOG.warn("{\"dropped\":" + (dropped - reportedDropped) + "}");
+            reportedDropped = dropped;
+        }
+        return written;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(1000);
+    }
+}
@@ -0,0 +1,47 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable dictionary encoding brands as small integer codes, so each distinct brand string is held once.
+ */
+final class BrandDictionary {
+
+    static final BrandDictionary EMPTY = new BrandDictionary(new String[0], Map.of());
+
+    private final String[] brands;
+    private final Map<String, Integer> codes;
+
+    private BrandDictionary(String[] brands, Map<String, Integer> codes) {
+        this.brands = brands;
+        this.codes = codes;
+    }
+
+    String brand(int code) {
+        return brands[code];
+    }
+
+    /**
+     * @return the code of the brand, or -1 when the dictionary does not contain it
+     */
+    int code(String brand) {
+        Integer code = codes.get(brand);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * @return this dictionary if it already contains the brand, otherwise a copy with the brand appended
+     */
+    BrandDictionary with(String brand) {
+        if (codes.containsKey(brand)) {
+            return this;
+        }
+        Map<String, Integer> newCodes = new HashMap<>(codes);
+        newCodes.put(brand, brands.length);
+        String[] newBrands = Arrays.copyOf(brands, brands.length + 1);
+        newBrands[brands.length] = brand;
+        return new BrandDictionary(newBrands, newCodes);
+    }
+}
@@ -0,0 +1,324 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Column-oriented copy of the catalog, ordered by id. Numbers live in primitive arrays, the type as its
+ * ordinal in a byte and the brand as a code into a shared {@link BrandDictionary}. Quantities are read
+ * from a {@link QuantityColumn} shared with every snapshot derived from this one and updated in place;
+ * the other columns are immutable. Inserting or removing a beer, or changing anything but its quantity,
+ * returns a new snapshot that shares every column it did not touch.
+ */
+public final class CatalogSnapshot {
+
+    private static final BeerType[] TYPES = BeerType.values();
+
+    private final long[] ids;
+    private final String[] names;
+    private final BrandDictionary brandDictionary;
+    private final int[] brandCodes;
+    private final int[] maxs;
+    private final byte[] types;
+    private final int[] quantitySlots;
+    private final QuantityColumn quantities;
+
+    private CatalogSnapshot(long[] ids, String[] names, BrandDictionary brandDictionary, int[] brandCodes,
+                            int[] maxs, byte[] types, int[] quantitySlots, QuantityColumn quantities) {
+        this.ids = ids;
+        this.names = names;
+        this.brandDictionary = brandDictionary;
+        this.brandCodes = brandCodes;
+        this.maxs = maxs;
+        this.types = types;
+        this.quantitySlots = quantitySlots;
+        this.quantities = quantities;
+    }
+
+    static CatalogSnapshot of(List<Beer> beers) {
+        return of(beers, Map.of());
+    }
+
+    /**
+     * @param locationQuantities stock held at locations by beer id, added to each beer's unassigned stock
+     */
+    static CatalogSnapshot of(List<Beer> beers, Map<Long, Integer> locationQuantities) {
+        List<Beer> sortedBeers = new ArrayList<>(beers);
+        sortedBeers.sort(Comparator.comparing(Beer::getId));
+
+        int size = sortedBeers.size();
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        int[] brandCodes = new int[size];
+        int[] maxs = new int[size];
+        byte[] types = new byte[size];
+        int[] quantitySlots = new int[size];
+        QuantityColumn quantities = new QuantityColumn();
+        BrandDictionary brandDictionary = BrandDictionary.EMPTY;
+        for (int i = 0; i < size; i++) {
+            Beer beer = sortedBeers.get(i);
+            brandDictionary = brandDictionary.with(beer.getBrand());
+            ids[i] = beer.getId();
+            names[i] = beer.getName();
+            brandCodes[i] = brandDictionary.code(beer.getBrand());
+            maxs[i] = beer.getMax();
+            types[i] = (byte) beer.getType().ordinal();
+            quantitySlots[i] = quantities.allocate(beer.getQuantity() + locationQuantities.getOrDefault(beer.getId(), 0));
+        }
+        return new CatalogSnapshot(ids, names, brandDictionary, brandCodes, maxs, types, quantitySlots, quantities);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String brand(int index) {
+        return brandDictionary.brand(brandCodes[index]);
+    }
+
+    public int max(int index) {
+        return maxs[index];
+    }
+
+    public int quantity(int index) {
+        return quantities.get(quantitySlots[index]);
+    }
+
+    public BeerType type(int index) {
+        return TYPES[types[index]];
+    }
+
+    public BeerDTO toDTO(int index) {
+        return new BeerDTO(ids[index], names[index], brand(index), maxs[index], quantity(index), type(index));
+    }
+
+    /**
+     * @param fields the fields to set, the others are left null; null sets every field
+     */
+    public BeerDTO toDTO(int index, Set<BeerField> fields) {
+        if (fields == null) {
+            return toDTO(index);
+        }
+        BeerDTO beer = new BeerDTO();
+        for (BeerField field : fields) {
+            field.set(beer, switch (field) {
+                case ID -> ids[index];
+                case NAME -> names[index];
+                case BRAND -> brand(index);
+                case MAX -> maxs[index];
+                case QUANTITY -> quantity(index);
+                case TYPE -> type(index);
+            });
+        }
+        return beer;
+    }
+
+    public List<BeerDTO> toDTOs() {
+        return toDTOs(null);
+    }
+
+    public List<BeerDTO> toDTOs(Set<BeerField> fields) {
+        List<BeerDTO> beers = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            beers.add(toDTO(i, fields));
+        }
+        return beers;
+    }
+
+    /**
+     * Beers matching the given brand and type; a null criterion matches everything.
+     */
+    public List<BeerDTO> filter(String brand, BeerType type) {
+        return filter(brand, type, null);
+    }
+
+    public List<BeerDTO> filter(String brand, BeerType type, Set<BeerField> fields) {
+        int brandCode = brand != null ? brandDictionary.code(brand) : -1;
+        if (brand != null && brandCode < 0) {
+            return List.of();
+        }
+        int typeOrdinal = type != null ? type.ordinal() : -1;
+
+        List<BeerDTO> beers = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            if ((brandCode < 0 || brandCodes[i] == brandCode) && (typeOrdinal < 0 || types[i] == typeOrdinal)) {
+                beers.add(toDTO(i, fields));
+            }
+        }
+        return beers;
+    }
+
+    /**
+     * Sets the quantity in place, visible to every snapshot sharing the quantity column.
+     */
+    void setQuantity(long id, int quantity) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            quantities.set(quantitySlots[index], quantity);
+        }
+    }
+
+    /**
+     * Adjusts the quantity in place, see {@link #setQuantity(long, int)}.
+     *
+     * @return false when the snapshot does not hold the beer
+     */
+    boolean adjustQuantity(long id, int delta) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return false;
+        }
+        quantities.add(quantitySlots[index], delta);
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Inserts the beer, or replaces the existing one, see {@link #withAll(Collection)}.
+     */
+    CatalogSnapshot with(Beer beer) {
+        return withAll(List.of(beer));
+    }
+
+    /**
+     * Inserts the beers, or replaces the existing ones; a beer given twice ends up as given last. Only
+     * inserts, or changes to another column than the quantity, copy columns, and each column is copied at
+     * most once, however many beers are given. Must not run concurrently with another insert.
+     */
+    CatalogSnapshot withAll(Collection<Beer> beers) {
+        BrandDictionary newBrandDictionary = brandDictionary;
+        for (Beer beer : beers) {
+            newBrandDictionary = newBrandDictionary.with(beer.getBrand());
+        }
+        String[] newNames = names;
+        int[] newBrandCodes = brandCodes;
+        int[] newMaxs = maxs;
+        byte[] newTypes = types;
+        boolean columnsCopied = false;
+        SortedMap<Long, Beer> insertedBeers = new TreeMap<>();
+        for (Beer beer : beers) {
+            int index = Arrays.binarySearch(ids, beer.getId());
+            if (index < 0) {
+                insertedBeers.put(beer.getId(), beer);
+                continue;
+            }
+            quantities.set(quantitySlots[index], beer.getQuantity());
+            if (beer.getName().equals(newNames[index])
+                    && newBrandDictionary.code(beer.getBrand()) == newBrandCodes[index]
+                    && beer.getMax() == newMaxs[index] && beer.getType().ordinal() == newTypes[index]) {
+                continue;
+            }
+            if (!columnsCopied) {
+                newNames = names.clone();
+                newBrandCodes = brandCodes.clone();
+                newMaxs = maxs.clone();
+                newTypes = types.clone();
+                columnsCopied = true;
+            }
+            set(index, beer, newBrandDictionary, newNames, newBrandCodes, newMaxs, newTypes);
+        }
+        if (insertedBeers.isEmpty()) {
+            return columnsCopied
+                    ? new CatalogSnapshot(ids, newNames, newBrandDictionary, newBrandCodes, newMaxs, newTypes,
+                    quantitySlots, quantities)
+                    : this;
+        }
+
+        int size = ids.length + insertedBeers.size();
+        long[] mergedIds = new long[size];
+        String[] mergedNames = new String[size];
+        int[] mergedBrandCodes = new int[size];
+        int[] mergedMaxs = new int[size];
+        byte[] mergedTypes = new byte[size];
+        int[] mergedQuantitySlots = new int[size];
+        int source = 0;
+        int target = 0;
+        for (Beer beer : insertedBeers.values()) {
+            int insertAt = -Arrays.binarySearch(ids, beer.getId()) - 1;
+            int length = insertAt - source;
+            System.arraycopy(ids, source, mergedIds, target, length);
+            System.arraycopy(newNames, source, mergedNames, target, length);
+            System.arraycopy(newBrandCodes, source, mergedBrandCodes, target, length);
+            System.arraycopy(newMaxs, source, mergedMaxs, target, length);
+            System.arraycopy(newTypes, source, mergedTypes, target, length);
+            System.arraycopy(quantitySlots, source, mergedQuantitySlots, target, length);
+            source = insertAt;
+            target += length;
+            mergedIds[target] = beer.getId();
+            set(target, beer, newBrandDictionary, mergedNames, mergedBrandCodes, mergedMaxs, mergedTypes);
+            mergedQuantitySlots[target] = quantities.allocate(beer.getQuantity());
+            target++;
+        }
+        int length = ids.length - source;
+        System.arraycopy(ids, source, mergedIds, target, length);
+        System.arraycopy(newNames, source, mergedNames, target, length);
+        System.arraycopy(newBrandCodes, source, mergedBrandCodes, target, length);
+        System.arraycopy(newMaxs, source, mergedMaxs, target, length);
+        System.arraycopy(newTypes, source, mergedTypes, target, length);
+        System.arraycopy(quantitySlots, source, mergedQuantitySlots, target, length);
+        return new CatalogSnapshot(mergedIds, mergedNames, newBrandDictionary, mergedBrandCodes, mergedMaxs,
+                mergedTypes, mergedQuantitySlots, quantities);
+    }
+
+    CatalogSnapshot without(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return this;
+        }
+        return new CatalogSnapshot(remove(ids, index), remove(names, index), brandDictionary, remove(brandCodes, index),
+                remove(maxs, index), remove(types, index), remove(quantitySlots, index), quantities);
+    }
+
+    private static void set(int index, Beer beer, BrandDictionary brandDictionary, String[] names, int[] brandCodes,
+                            int[] maxs, byte[] types) {
+        names[index] = beer.getName();
+        brandCodes[index] = brandDictionary.code(beer.getBrand());
+        maxs[index] = beer.getMax();
+        types[index] = (byte) beer.getType().ordinal();
+    }
+
+    private static Object removeFrom(Object source, Object target, int length, int index) {
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index + 1, target, index, length - index - 1);
+        return target;
+    }
+
+    private static long[] remove(long[] source, int index) {
+        return (long[]) removeFrom(source, new long[source.length - 1], source.length, index);
+    }
+
+    private static int[] remove(int[] source, int index) {
+        return (int[]) removeFrom(source, new int[source.length - 1], source.length, index);
+    }
+
+    private static byte[] remove(byte[] source, int index) {
+        return (byte[]) removeFrom(source, new byte[source.length - 1], source.length, index);
+    }
+
+    private static String[] remove(String[] source, int index) {
+        return (String[]) removeFrom(source, new String[source.length - 1], source.length, index);
+    }
+}
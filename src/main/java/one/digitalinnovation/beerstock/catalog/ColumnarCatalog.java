@@ -0,0 +1,184 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerLocationStockRepository;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optional columnar read model of the catalog, enabled with {@code beerstock.catalog.columnar.enabled=true}.
+ * It is loaded once all singletons are created, before the web server accepts requests, and then kept in
+ * step with the writes made through {@link one.digitalinnovation.beerstock.service.BeerService} on this
+ * instance, once they have committed. Writes of other instances only show up with the next
+ * {@link #rebuild()}, which {@link one.digitalinnovation.beerstock.config.ColumnarCatalogConfig} runs at a
+ * fixed interval. Quantity changes are applied in place; inserts and removals swap in a new
+ * {@link CatalogSnapshot}, one at a time. Readers never lock.
+ */
+@Component
+public class ColumnarCatalog implements SmartInitializingSingleton {
+
+    private final BeerRepository beerRepository;
+    private final BeerLocationStockRepository beerLocationStockRepository;
+    private final boolean enabled;
+    private final Object rebuildLock = new Object();
+
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * Beers written while a rebuild reads the repository, re-read before the rebuilt snapshot is published
+     * since the rebuild may or may not have seen their writes; null while no rebuild runs.
+     */
+    private volatile Set<Long> changedDuringRebuild;
+
+    /**
+     * Quantity deltas of beers whose insert has committed but not been applied yet, added on the insert.
+     */
+    private final Map<Long, Integer> deltasOfPendingInserts = new HashMap<>();
+
+    public ColumnarCatalog(BeerRepository beerRepository,
+                           BeerLocationStockRepository beerLocationStockRepository,
+                           @Value("${beerstock.catalog.columnar.enabled:false}") boolean enabled) {
+        this.beerRepository = beerRepository;
+        this.beerLocationStockRepository = beerLocationStockRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reads the whole catalog from the repository and swaps it in. Writes applied meanwhile keep updating
+     * the current snapshot, and the beers they touched are read again before the swap, so none is lost.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            try {
+                CatalogSnapshot rebuiltSnapshot = loadSnapshot();
+                while (true) {
+                    Set<Long> changedIds;
+                    synchronized (this) {
+                        if (changedDuringRebuild.isEmpty()) {
+                            snapshot = rebuiltSnapshot;
+                            deltasOfPendingInserts.clear();
+                            return;
+                        }
+                        changedIds = changedDuringRebuild;
+                        changedDuringRebuild = new HashSet<>();
+                    }
+                    rebuiltSnapshot = reload(rebuiltSnapshot, changedIds);
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * @return the current snapshot, or null while the catalog is disabled or not loaded yet
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sets every column of the beer, quantity included.
+     */
+    public void upsert(Beer beer) {
+        upsertAll(List.of(beer));
+    }
+
+    /**
+     * Sets every column of the beers, quantity included, copying each column of the snapshot at most once.
+     */
+    public synchronized void upsertAll(Collection<Beer> beers) {
+        if (changedDuringRebuild != null) {
+            beers.forEach(beer -> changedDuringRebuild.add(beer.getId()));
+        }
+        if (snapshot == null) {
+            return;
+        }
+        snapshot = snapshot.withAll(beers);
+        for (Beer beer : beers) {
+            Integer delta = deltasOfPendingInserts.remove(beer.getId());
+            if (delta != null) {
+                snapshot.adjustQuantity(beer.getId(), delta);
+            }
+        }
+    }
+
+    /**
+     * Applied as a delta, so that adjustments of the unassigned stock and of the locations of a beer
+     * compose into its aggregate quantity. Does not lock unless a rebuild runs or the beer has not been
+     * inserted yet: the quantity column is shared by the current snapshot and the ones replacing it.
+     */
+    public void adjustQuantity(Long id, int delta) {
+        if (changedDuringRebuild == null) {
+            CatalogSnapshot currentSnapshot = snapshot;
+            if (currentSnapshot == null || currentSnapshot.adjustQuantity(id, delta)) {
+                return;
+            }
+        }
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(id);
+            }
+            if (snapshot != null && !snapshot.adjustQuantity(id, delta)) {
+                deltasOfPendingInserts.merge(id, delta, Integer::sum);
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+        deltasOfPendingInserts.remove(id);
+        if (snapshot != null) {
+            snapshot = snapshot.without(id);
+        }
+    }
+
+    private CatalogSnapshot loadSnapshot() {
+        return CatalogSnapshot.of(beerRepository.findAll(), beerLocationStockRepository.quantitiesByBeerId());
+    }
+
+    private CatalogSnapshot reload(CatalogSnapshot rebuiltSnapshot, Set<Long> ids) {
+        List<Beer> beers = new ArrayList<>();
+        for (Beer beer : beerRepository.findAllById(ids)) {
+            beerRepository.findAggregateQuantity(beer.getId()).ifPresent(quantity -> {
+                beer.setQuantity(quantity);
+                beers.add(beer);
+            });
+        }
+        Set<Long> removedIds = new HashSet<>(ids);
+        beers.forEach(beer -> removedIds.remove(beer.getId()));
+        for (Long id : removedIds) {
+            rebuiltSnapshot = rebuiltSnapshot.without(id);
+        }
+        return rebuiltSnapshot.withAll(beers);
+    }
+}
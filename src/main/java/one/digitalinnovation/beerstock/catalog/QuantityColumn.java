@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Quantity column updated in place, shared by the snapshots of one catalog. Each beer gets a slot that
+ * never moves, so snapshots can be replaced while quantities are being adjusted without losing an
+ * update. Slots live in fixed-size chunks; growing only appends chunks, and the slot of a removed beer
+ * is not reused. Reads and updates are lock-free; {@link #allocate(int)} must not run concurrently.
+ */
+final class QuantityColumn {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile AtomicIntegerArray[] chunks = new AtomicIntegerArray[0];
+    private int size;
+
+    /**
+     * @return the slot holding the given quantity
+     */
+    int allocate(int quantity) {
+        int slot = size;
+        AtomicIntegerArray[] currentChunks = chunks;
+        if (slot >> CHUNK_SHIFT == currentChunks.length) {
+            AtomicIntegerArray[] newChunks = Arrays.copyOf(currentChunks, currentChunks.length + 1);
+            newChunks[currentChunks.length] = new AtomicIntegerArray(CHUNK_SIZE);
+            currentChunks = newChunks;
+        }
+        currentChunks[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, quantity);
+        chunks = currentChunks;
+        size = slot + 1;
+        return slot;
+    }
+
+    int get(int slot) {
+        return chunks[slot >> CHUNK_SHIFT].get(slot & CHUNK_MASK);
+    }
+
+    void set(int slot, int quantity) {
+        chunks[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, quantity);
+    }
+
+    void add(int slot, int delta) {
+        chunks[slot >> CHUNK_SHIFT].addAndGet(slot & CHUNK_MASK, delta);
+    }
+}
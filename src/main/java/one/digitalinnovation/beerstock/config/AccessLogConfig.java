@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.accesslog.AccessLogEntry;
+import one.digitalinnovation.beerstock.accesslog.AccessLogFilter;
+import one.digitalinnovation.beerstock.accesslog.AccessLogRingBuffer;
+import one.digitalinnovation.beerstock.accesslog.AccessLogWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Structured access log for the API, written asynchronously as JSON lines (enabled by the prod profile).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.access-log", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfig {
+
+    @Bean
+    public AccessLogRingBuffer<AccessLogEntry> accessLogRingBuffer(AccessLogProperties properties) {
+        return new AccessLogRingBuffer<>(properties.getCapacity());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AccessLogWriter accessLogWriter(AccessLogRingBuffer<AccessLogEntry> accessLogRingBuffer,
+                                           AccessLogProperties properties) {
+        return new AccessLogWriter(accessLogRingBuffer, properties.getIdleSleep());
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogRingBuffer<AccessLogEntry> accessLogRingBuffer) {
+        FilterRegistrationBean<AccessLogFilter> registration =
+                new FilterRegistrationBean<>(new AccessLogFilter(accessLogRingBuffer));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Entries buffered in memory, rounded up to a power of two; entries beyond it are dropped.
+     */
+    private int capacity = 8192;
+
+    /**
+     * How long the writer thread sleeps when the buffer is empty.
+     */
+    private Duration idleSleep = Duration.ofMillis(10);
+}
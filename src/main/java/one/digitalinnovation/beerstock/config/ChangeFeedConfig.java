@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ChangeFeedConfig implements SchedulingConfigurer {
+
+    private final ChangeFeedProperties changeFeedProperties;
+    private final BeerService beerService;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(beerService::compactChanges, changeFeedProperties.getCompactionInterval());
+    }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * How long after a change log entry was written the feed may step over a missing sequence before it,
+     * taken by a write that rolled back. Must exceed twice the longest write transaction, which
+     * {@code spring.transaction.default-timeout} bounds.
+     */
+    private Duration settleTime = Duration.ofMinutes(1);
+
+    /**
+     * How often the entries superseded by a newer change of the same beer are deleted.
+     */
+    private Duration compactionInterval = Duration.ofMinutes(5);
+}
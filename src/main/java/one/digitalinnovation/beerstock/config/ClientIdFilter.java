@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import one.digitalinnovation.beerstock.repository.replica.ClientContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client to the request thread, taken from a header or, failing that, the remote address.
+ */
+public class ClientIdFilter extends OncePerRequestFilter {
+
+    private final String clientIdHeader;
+
+    public ClientIdFilter(String clientIdHeader) {
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(clientIdHeader);
+        ClientContext.setCurrentClient(clientId != null ? clientId : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.catalog.ColumnarCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Rebuilds the columnar catalog at a fixed interval, which bounds how long it misses the writes of other
+ * instances.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "beerstock.catalog.columnar", name = "enabled", havingValue = "true")
+public class ColumnarCatalogConfig implements SchedulingConfigurer {
+
+    private final ColumnarCatalog columnarCatalog;
+    private final Duration rebuildInterval;
+
+    public ColumnarCatalogConfig(ColumnarCatalog columnarCatalog,
+                                 @Value("${beerstock.catalog.columnar.rebuild-interval:10m}") Duration rebuildInterval) {
+        this.columnarCatalog = columnarCatalog;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(columnarCatalog::rebuild, rebuildInterval, rebuildInterval));
+    }
+}
@@ -0,0 +1,45 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.limiter.AimdConcurrencyLimiter;
+import one.digitalinnovation.beerstock.limiter.ConcurrencyLimitInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adaptive concurrency limiting in front of the beer endpoints, with separate limits for single-beer reads,
+ * catalog-wide reads and writes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    /**
+     * Listing and searching the catalog, planning restocks and reading the change feed.
+     */
+    private static final List<String> SCAN_PATH_PATTERNS = List.of(
+            "/api/v1/beers", "/api/v1/beers/-/restock-plan", "/api/v1/beers/-/changes");
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitProperties properties) {
+        this.concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(createLimiter(properties.getRead()),
+                createLimiter(properties.getScan()), SCAN_PATH_PATTERNS, createLimiter(properties.getWrite()),
+                properties.getRetryAfter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/api/v1/beers/**");
+    }
+
+    private static AimdConcurrencyLimiter createLimiter(ConcurrencyLimitProperties.Limit limit) {
+        return new AimdConcurrencyLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                limit.getLatencyThresholdMillis(), limit.getBackoffRatio());
+    }
+}
@@ -0,0 +1,50 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Limit read = new Limit(200, 1000, 100);
+
+    /**
+     * Reads of the whole catalog, see {@link ConcurrencyLimitConfig}.
+     */
+    private Limit scan = new Limit(20, 100, 1000);
+
+    private Limit write = new Limit(50, 200, 250);
+
+    @Data
+    public static class Limit {
+
+        private int initialLimit;
+
+        private int minLimit = 4;
+
+        private int maxLimit;
+
+        /**
+         * Requests slower than this count as congestion and shrink the limit.
+         */
+        private long latencyThresholdMillis;
+
+        private double backoffRatio = 0.9;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int maxLimit, long latencyThresholdMillis) {
+            this.initialLimit = initialLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThresholdMillis = latencyThresholdMillis;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.hot.HotBeerInterceptor;
+import one.digitalinnovation.beerstock.hot.HotBeers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Hot beer ranking, fed by the beer endpoints once their requests have succeeded.
+ */
+@Configuration
+@EnableConfigurationProperties(HotBeersProperties.class)
+public class HotBeersConfig implements WebMvcConfigurer {
+
+    private final HotBeers hotBeers;
+
+    public HotBeersConfig(HotBeersProperties properties) {
+        int stripes = properties.getStripes() > 0
+                ? properties.getStripes()
+                : Runtime.getRuntime().availableProcessors();
+        this.hotBeers = new HotBeers(stripes, properties.getCapacity(), properties.getMetricsTop(),
+                properties.getMetricsRefresh());
+    }
+
+    @Bean
+    public HotBeers hotBeers() {
+        return hotBeers;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HotBeerInterceptor(hotBeers)).addPathPatterns("/api/v1/beers/**");
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.hot-beers")
+public class HotBeersProperties {
+
+    /**
+     * Independently locked sketches per kind of event, rounded up to a power of two; 0 uses the number of
+     * processors.
+     */
+    private int stripes = 0;
+
+    /**
+     * Counters per sketch. Beers ranked well within it are estimated closely.
+     */
+    private int capacity = 128;
+
+    /**
+     * Ranks published as metrics.
+     */
+    private int metricsTop = 10;
+
+    /**
+     * How long the ranking published as metrics is reused before being merged again.
+     */
+    private Duration metricsRefresh = Duration.ofSeconds(1);
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.job.JobExecutor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JobProperties.class)
+public class JobConfig {
+
+    @Bean(destroyMethod = "close")
+    public JobExecutor jobExecutor(JobProperties properties) {
+        return new JobExecutor(properties.getMaxConcurrentJobs(), properties.getMaxPendingJobs(),
+                properties.getRetention(), properties.getRetryAfter());
+    }
+}
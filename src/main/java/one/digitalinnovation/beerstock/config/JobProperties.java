@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.jobs")
+public class JobProperties {
+
+    /**
+     * Jobs running at the same time; the rest wait in the queue.
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * Jobs queued or running before new submissions are rejected with 503.
+     */
+    private int maxPendingJobs = 100;
+
+    /**
+     * How long a finished job and its result stay available.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
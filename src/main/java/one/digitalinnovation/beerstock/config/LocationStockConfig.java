@@ -0,0 +1,9 @@
+package one.digitalinnovation.beerstock.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LocationStockProperties.class)
+public class LocationStockConfig {
+}
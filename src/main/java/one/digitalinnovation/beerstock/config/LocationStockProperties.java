@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.locations")
+public class LocationStockProperties {
+
+    /**
+     * Whether stock can be assigned to locations. Location stock lives on the primary datasource, next to
+     * no beer row once sharded, so sharding refuses to start while this is enabled.
+     */
+    private boolean enabled = true;
+}
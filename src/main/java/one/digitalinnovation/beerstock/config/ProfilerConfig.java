@@ -0,0 +1,77 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.profiler.EntityLoadProfilingInterceptor;
+import one.digitalinnovation.beerstock.profiler.ProfilingDataSource;
+import one.digitalinnovation.beerstock.profiler.RequestProfileBudget;
+import one.digitalinnovation.beerstock.profiler.RequestProfiler;
+import one.digitalinnovation.beerstock.profiler.RequestProfilesEndpoint;
+import one.digitalinnovation.beerstock.profiler.RequestProfilingInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in per-request diagnostics for the beer endpoints, enabled with {@code beerstock.profiler.enabled=true}:
+ * SQL statements, JDBC time, entities loaded and bytes allocated are measured for every request and
+ * checked against the configured budgets.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.profiler", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProfilerProperties.class)
+public class ProfilerConfig implements WebMvcConfigurer {
+
+    private final RequestProfiler requestProfiler;
+
+    public ProfilerConfig(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    @Bean
+    public static RequestProfiler requestProfiler(ProfilerProperties properties) {
+        RequestProfileBudget budget = new RequestProfileBudget(properties.getMaxStatements(),
+                properties.getMaxJdbcTime().toMillis(), properties.getMaxEntitiesLoaded(),
+                properties.getMaxAllocated().toBytes(), properties.getRepeatedStatementThreshold());
+        return new RequestProfiler(budget, properties.getWorstOffenders());
+    }
+
+    /**
+     * Only the {@code dataSource} bean used by JPA is wrapped, not the pools it may route to.
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<RequestProfiler> requestProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new ProfilingDataSource(dataSource, requestProfiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadProfilingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.INTERCEPTOR,
+                new EntityLoadProfilingInterceptor(requestProfiler));
+    }
+
+    @Bean
+    public RequestProfilesEndpoint requestProfilesEndpoint() {
+        return new RequestProfilesEndpoint(requestProfiler);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestProfilingInterceptor(requestProfiler)).addPathPatterns("/api/v1/beers/**");
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.profiler")
+public class ProfilerProperties {
+
+    private boolean enabled = false;
+
+    private int maxStatements = 4;
+
+    private Duration maxJdbcTime = Duration.ofMillis(50);
+
+    private int maxEntitiesLoaded = 100;
+
+    private DataSize maxAllocated = DataSize.ofMegabytes(16);
+
+    /**
+     * Executions of one identical statement within a request that are reported as a possible N+1.
+     */
+    private int repeatedStatementThreshold = 3;
+
+    /**
+     * Over-budget requests kept for the requestprofiles actuator endpoint.
+     */
+    private int worstOffenders = 20;
+}
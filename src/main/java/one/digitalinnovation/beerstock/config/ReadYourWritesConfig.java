@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.repository.replica.ReadYourWritesTracker;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes bookkeeping, used by the replica routing and by the services, which keep clients that
+ * wrote recently out of results shared with other clients. Tracks nothing unless replicas are enabled.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadYourWritesConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.isEnabled()
+                ? replicaProperties.getReadYourWritesWindow()
+                : Duration.ZERO);
+    }
+}
@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.replica")
+public class ReplicaProperties {
+
+    private boolean enabled;
+
+    private String url;
+
+    private String username = "sa";
+
+    private String password = "";
+
+    /**
+     * How long reads of a client keep going to the primary after that client wrote. Zero disables it.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    private String clientIdHeader = "X-Client-Id";
+}
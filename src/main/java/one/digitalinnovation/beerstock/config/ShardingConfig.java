@@ -0,0 +1,159 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerProjectionRepositoryImpl;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerUpsertRepositoryImpl;
+import one.digitalinnovation.beerstock.repository.shard.BeerShard;
+import one.digitalinnovation.beerstock.repository.shard.ShardDirectory;
+import one.digitalinnovation.beerstock.repository.shard.ShardedBeerRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.PersistenceExceptionTranslationRepositoryProxyPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sharded persistence mode, enabled with {@code beerstock.sharding.enabled=true}. Every entry of
+ * {@code beerstock.sharding.shards} gets its own datasource, entity manager factory and
+ * {@link BeerRepository}, and the service is wired to a {@link ShardedBeerRepository} routing across them.
+ * Stock locations must be disabled, see {@link LocationStockProperties}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig implements DisposableBean {
+
+    private final List<AutoCloseable> shardResources = new ArrayList<>();
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService shardScatterExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory() {
+        return new ShardDirectory();
+    }
+
+    @Bean
+    @Primary
+    public BeerRepository shardedBeerRepository(ShardingProperties shardingProperties,
+                                                LocationStockProperties locationStockProperties,
+                                                EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                                JpaProperties jpaProperties,
+                                                HibernateProperties hibernateProperties,
+                                                ListableBeanFactory beanFactory,
+                                                TransactionManagerCustomizers transactionManagerCustomizers,
+                                                ShardDirectory shardDirectory,
+                                                ExecutorService shardScatterExecutor) {
+        if (locationStockProperties.isEnabled()) {
+            throw new IllegalStateException("Stock locations live on the primary datasource and cannot be combined"
+                    + " with sharding: set beerstock.locations.enabled=false");
+        }
+        List<ShardingProperties.ShardDataSource> shardDataSources = shardingProperties.getShards();
+        if (shardDataSources.isEmpty()) {
+            throw new IllegalStateException("beerstock.sharding.shards must list at least one datasource");
+        }
+
+        // Same naming strategies and settings as the primary, so that native SQL finds the same tables
+        Map<String, Object> shardJpaProperties = new HashMap<>(hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings()));
+        shardJpaProperties.put("hibernate.hbm2ddl.auto", shardingProperties.getDdlAuto());
+
+        List<BeerShard> shards = new ArrayList<>(shardDataSources.size());
+        for (int i = 0; i < shardDataSources.size(); i++) {
+            shards.add(createShard(i, shardDataSources.get(i), shardingProperties, shardJpaProperties,
+                    entityManagerFactoryBuilder, beanFactory, transactionManagerCustomizers));
+        }
+        return new ShardedBeerRepository(shards, shardDirectory, shardingProperties.getIdRangeSize(), shardScatterExecutor);
+    }
+
+    private BeerShard createShard(int index, ShardingProperties.ShardDataSource shardDataSource,
+                                  ShardingProperties shardingProperties,
+                                  Map<String, Object> shardJpaProperties,
+                                  EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                  ListableBeanFactory beanFactory,
+                                  TransactionManagerCustomizers transactionManagerCustomizers) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shardDataSource.getUrl())
+                .username(shardDataSource.getUsername())
+                .password(shardDataSource.getPassword())
+                .build();
+        dataSource.setPoolName("beerstock-shard-" + index);
+        shardResources.add(dataSource);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = entityManagerFactoryBuilder
+                .dataSource(dataSource)
+                .packages(Beer.class)
+                .persistenceUnit("beerstock-shard-" + index)
+                .properties(shardJpaProperties)
+                .build();
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        reserveIdRange(dataSource, index, shardingProperties.getIdRangeSize());
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        repositoryFactory.addRepositoryProxyPostProcessor(new PersistenceExceptionTranslationRepositoryProxyPostProcessor(beanFactory));
+        BeerRepository beerRepository = repositoryFactory.getRepository(BeerRepository.class,
+                RepositoryComposition.RepositoryFragments.just(new BeerProjectionRepositoryImpl(entityManager),
+                        new BeerUpsertRepositoryImpl(entityManager)));
+
+        // spring.transaction.* applies to shards too, so that their writes are bounded by the same timeout
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManagerCustomizers.customize(transactionManager);
+        BeerShard shard = new BeerShard(index, beerRepository, new TransactionTemplate(transactionManager),
+                entityManagerFactory);
+        shardResources.add(shard);
+        return shard;
+    }
+
+    /**
+     * Moves the identity column of a fresh shard to the start of its id range, so ids generated on
+     * this shard are routed back to it.
+     */
+    private void reserveIdRange(HikariDataSource dataSource, int index, long idRangeSize) {
+        long rangeStart = index * idRangeSize;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM beer", Long.class);
+        if (maxId != null && maxId < rangeStart) {
+            jdbcTemplate.execute("ALTER TABLE beer ALTER COLUMN id RESTART WITH " + (rangeStart + 1));
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (int i = shardResources.size() - 1; i >= 0; i--) {
+            shardResources.get(i).close();
+        }
+    }
+}
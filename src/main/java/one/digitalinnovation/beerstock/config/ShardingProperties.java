@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Width of the id range owned by each shard: shard {@code i} hands out ids in
+     * {@code [i * idRangeSize + 1, (i + 1) * idRangeSize]}.
+     */
+    private long idRangeSize = 1_000_000_000L;
+
+    private String ddlAuto = "update";
+
+    private List<ShardDataSource> shards = new ArrayList<>();
+
+    @Data
+    public static class ShardDataSource {
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+    }
+}
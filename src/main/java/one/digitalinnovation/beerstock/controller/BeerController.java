@@ -1,33 +1,62 @@
 package one.digitalinnovation.beerstock.controller;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLocationsDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.HotBeersDTO;
+import one.digitalinnovation.beerstock.dto.LocationCapacityDTO;
+import one.digitalinnovation.beerstock.dto.LocationStockDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.dto.StockHistoryDTO;
+import one.digitalinnovation.beerstock.dto.StockTransferDTO;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.StockLocationNotFoundException;
+import one.digitalinnovation.beerstock.exception.StockLocationsDisabledException;
+import one.digitalinnovation.beerstock.hot.HotBeerInterceptor;
+import one.digitalinnovation.beerstock.hot.HotBeers;
 import one.digitalinnovation.beerstock.service.BeerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Endpoints about the catalog as a whole live under {@code /-/}, so that they never shadow the lookup of a
+ * beer by name.
+ */
 @RestController
 @RequestMapping("/api/v1/beers")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
     private final BeerService beerService;
+    private final HotBeers hotBeers;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,14 +64,67 @@ public class BeerController implements BeerControllerDocs {
         return beerService.createBeer(beerDTO);
     }
 
+    @PutMapping
+    public BulkOperationResultDTO upsertBeers(@RequestBody @Valid BeerBatchDTO beerBatchDTO) {
+        return beerService.upsert(beerBatchDTO.getBeers());
+    }
+
+    @GetMapping("/-/restock-plan")
+    public RestockPlanDTO restockPlan(@RequestParam(defaultValue = "0.8") double targetFillRatio,
+                                      @RequestParam(defaultValue = "500") int maxQuantityPerOrder)
+            throws InvalidParameterException {
+        return beerService.restockPlan(targetFillRatio, maxQuantityPerOrder);
+    }
+
+    @GetMapping("/-/changes")
+    public BeerChangesDTO changes(@RequestParam(defaultValue = "0") String since,
+                                  @RequestParam(defaultValue = "500") int limit) throws InvalidParameterException {
+        return beerService.changes(since, limit);
+    }
+
+    @GetMapping("/-/hot")
+    public HotBeersDTO hot(@RequestParam(defaultValue = "REQUESTED") HotBeerKind kind,
+                           @RequestParam(defaultValue = "10") int limit) throws InvalidParameterException {
+        return hotBeers.top(kind, limit);
+    }
+
+    /**
+     * The id is read even when the fields leave it out, so that the lookup can be counted.
+     */
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public BeerDTO findByName(@PathVariable String name,
+                              @RequestParam(required = false) String fields)
+            throws BeerNotFoundException, InvalidParameterException {
+        BeerField.Selection selection = BeerField.parseWithId(fields);
+        if (selection == null) {
+            BeerDTO beerDTO = beerService.findByName(name);
+            HotBeerInterceptor.recordOnSuccess(HotBeerKind.REQUESTED, beerDTO.getId());
+            return beerDTO;
+        }
+        return beerService.findByName(name, selection,
+                beerId -> HotBeerInterceptor.recordOnSuccess(HotBeerKind.REQUESTED, beerId));
     }
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public List<BeerDTO> listBeers(@RequestParam(required = false) String brand,
+                                   @RequestParam(required = false) BeerType type,
+                                   @RequestParam(required = false) String fields) throws InvalidParameterException {
+        Set<BeerField> beerFields = BeerField.parse(fields);
+        if (beerFields == null) {
+            return brand == null && type == null ? beerService.listAll() : beerService.search(brand, type);
+        }
+        return brand == null && type == null
+                ? beerService.listAll(beerFields)
+                : beerService.search(brand, type, beerFields);
+    }
+
+    @GetMapping("/{id}/history")
+    public StockHistoryDTO history(@PathVariable Long id,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                   @RequestParam(defaultValue = "MINUTE") HistoryResolution resolution) throws BeerNotFoundException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.REQUESTED, id);
+        return beerService.history(id, from, to, resolution);
     }
 
     @DeleteMapping("/{id}")
@@ -54,12 +136,52 @@ public class BeerController implements BeerControllerDocs {
     @PatchMapping("/{id}/increment")
     public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO)
             throws BeerNotFoundException, BeerStockExceededException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.ADJUSTED, id);
         return beerService.increment(id, quantityDTO.getQuantity());
     }
 
     @PatchMapping("/{id}/decrement")
     public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO)
             throws BeerNotFoundException, BeerStockExceededException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.ADJUSTED, id);
         return beerService.decrement(id, quantityDTO.getQuantity());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/locations")
+    public BeerLocationsDTO locations(@PathVariable Long id) throws BeerNotFoundException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.REQUESTED, id);
+        return beerService.locations(id);
+    }
+
+    @PutMapping("/{id}/locations/{location}")
+    public LocationStockDTO setLocationCapacity(@PathVariable Long id, @PathVariable String location,
+                                                @RequestBody @Valid LocationCapacityDTO locationCapacityDTO)
+            throws BeerNotFoundException, BeerStockExceededException, StockLocationsDisabledException {
+        return beerService.setLocationCapacity(id, location, locationCapacityDTO.getCapacity());
+    }
+
+    @PatchMapping("/{id}/locations/{location}/increment")
+    public LocationStockDTO incrementAtLocation(@PathVariable Long id, @PathVariable String location,
+                                                @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.ADJUSTED, id);
+        return beerService.incrementAtLocation(id, location, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/locations/{location}/decrement")
+    public LocationStockDTO decrementAtLocation(@PathVariable Long id, @PathVariable String location,
+                                                @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.ADJUSTED, id);
+        return beerService.decrementAtLocation(id, location, quantityDTO.getQuantity());
+    }
+
+    @PostMapping("/{id}/locations/transfer")
+    public BeerLocationsDTO transfer(@PathVariable Long id, @RequestBody @Valid StockTransferDTO stockTransferDTO)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException,
+            InvalidParameterException {
+        HotBeerInterceptor.recordOnSuccess(HotBeerKind.ADJUSTED, id);
+        return beerService.transfer(id, stockTransferDTO.getFrom(), stockTransferDTO.getTo(),
+                stockTransferDTO.getQuantity());
+    }
+}
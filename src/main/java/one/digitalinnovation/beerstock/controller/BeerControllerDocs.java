@@ -6,11 +6,30 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLocationsDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.HotBeersDTO;
+import one.digitalinnovation.beerstock.dto.LocationCapacityDTO;
+import one.digitalinnovation.beerstock.dto.LocationStockDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.dto.StockHistoryDTO;
+import one.digitalinnovation.beerstock.dto.StockTransferDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.StockLocationNotFoundException;
+import one.digitalinnovation.beerstock.exception.StockLocationsDisabledException;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import java.time.Instant;
 import java.util.List;
 
 @Tag(name = "Beer Management", description = "Operations for managing beer stock")
@@ -30,29 +49,125 @@ public interface BeerControllerDocs {
             BeerDTO beerDTO
     ) throws BeerAlreadyRegisteredException;
 
+    @Operation(
+            summary = "Create or update beers in bulk",
+            description = "Creates the beers whose name is new and overwrites the others, keyed on the name",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Beers written, with the ones left unchanged",
+                            content = @Content(schema = @Schema(implementation = BulkOperationResultDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Missing or invalid fields, or more than 1000 beers")
+            }
+    )
+    BulkOperationResultDTO upsertBeers(
+            @Parameter(description = "Beers to create or update", required = true)
+            BeerBatchDTO beerBatchDTO
+    );
+
     @Operation(
             summary = "Find beer by name",
             description = "Returns a beer found by its name",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Beer found",
                             content = @Content(schema = @Schema(implementation = BeerDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Unknown field"),
                     @ApiResponse(responseCode = "404", description = "Beer not found")
             }
     )
     BeerDTO findByName(
             @Parameter(description = "Name of the beer to search", required = true)
-            @PathVariable String name
-    ) throws BeerNotFoundException;
+            @PathVariable String name,
+            @Parameter(description = "Comma-separated fields to return, such as id,quantity; defaults to every field")
+            String fields
+    ) throws BeerNotFoundException, InvalidParameterException;
 
     @Operation(
             summary = "List all beers",
-            description = "Returns a list of all registered beers",
+            description = "Returns a list of all registered beers, optionally filtered by brand and/or type",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of all beers",
                             content = @Content(schema = @Schema(implementation = BeerDTO.class)))
             }
     )
-    List<BeerDTO> listBeers();
+    List<BeerDTO> listBeers(
+            @Parameter(description = "Only beers of this brand")
+            String brand,
+            @Parameter(description = "Only beers of this type")
+            BeerType type,
+            @Parameter(description = "Comma-separated fields to return, such as id,quantity; defaults to every field")
+            String fields
+    ) throws InvalidParameterException;
+
+    @Operation(
+            summary = "Restock plan",
+            description = "Returns the quantity to order for every beer to reach the target fill ratio of its max, "
+                    + "grouped into orders per brand and type",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Restock plan",
+                            content = @Content(schema = @Schema(implementation = RestockPlanDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid fill ratio or order limit")
+            }
+    )
+    RestockPlanDTO restockPlan(
+            @Parameter(description = "Fill ratio of max to reach, in (0, 1], defaults to 0.8")
+            double targetFillRatio,
+            @Parameter(description = "Maximum quantity per order, defaults to 500")
+            int maxQuantityPerOrder
+    ) throws InvalidParameterException;
+
+    @Operation(
+            summary = "Hot beers",
+            description = "Returns the beers with the most events of the given kind seen by this instance, "
+                    + "most frequent first, estimated in fixed memory",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hot beers",
+                            content = @Content(schema = @Schema(implementation = HotBeersDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid kind or limit")
+            }
+    )
+    HotBeersDTO hot(
+            @Parameter(description = "REQUESTED for successful lookups, ADJUSTED for successful stock adjustments, defaults to REQUESTED")
+            HotBeerKind kind,
+            @Parameter(description = "Maximum number of beers, defaults to 10")
+            int limit
+    ) throws InvalidParameterException;
+
+    @Operation(
+            summary = "Changes since a token",
+            description = "Returns the beers created or modified and the ids of the beers deleted after the token, "
+                    + "oldest change first, with the token to use on the next call. Changes show up once every "
+                    + "write that started before them has completed",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Changes since the token",
+                            content = @Content(schema = @Schema(implementation = BeerChangesDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid token or limit")
+            }
+    )
+    BeerChangesDTO changes(
+            @Parameter(description = "Token returned by the previous call, defaults to 0 for every beer")
+            String since,
+            @Parameter(description = "Maximum number of changes, from 1 to 1000, defaults to 500")
+            int limit
+    ) throws InvalidParameterException;
+
+    @Operation(
+            summary = "Stock history of a beer",
+            description = "Returns the quantity over time of a beer, as raw samples or minute/hour buckets (min, max, last)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stock history in the requested range",
+                            content = @Content(schema = @Schema(implementation = StockHistoryDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Beer not found")
+            }
+    )
+    StockHistoryDTO history(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Start of the range (ISO-8601), defaults to 24 hours before the end")
+            Instant from,
+            @Parameter(description = "End of the range (ISO-8601), defaults to now")
+            Instant to,
+            @Parameter(description = "RAW, MINUTE or HOUR, defaults to MINUTE")
+            HistoryResolution resolution
+    ) throws BeerNotFoundException;
 
     @Operation(
             summary = "Delete beer by ID",
@@ -66,4 +181,93 @@ public interface BeerControllerDocs {
             @Parameter(description = "ID of the beer to delete", required = true)
             @PathVariable Long id
     ) throws BeerNotFoundException;
+
+    @Operation(
+            summary = "Stock per location",
+            description = "Returns the stock of a beer at each location, the unassigned stock and their aggregate",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stock per location",
+                            content = @Content(schema = @Schema(implementation = BeerLocationsDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Beer not found")
+            }
+    )
+    BeerLocationsDTO locations(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id
+    ) throws BeerNotFoundException;
+
+    @Operation(
+            summary = "Set location capacity",
+            description = "Sets the share of the beer's max held by a location, creating the location if needed",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Location after the change",
+                            content = @Content(schema = @Schema(implementation = LocationStockDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Capacity exceeds what is left of max, "
+                            + "or is below the quantity held at the location"),
+                    @ApiResponse(responseCode = "404", description = "Beer not found"),
+                    @ApiResponse(responseCode = "501", description = "Stock locations are disabled on this server")
+            }
+    )
+    LocationStockDTO setLocationCapacity(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Name of the location", required = true)
+            @PathVariable String location,
+            @Parameter(description = "New capacity of the location", required = true)
+            LocationCapacityDTO locationCapacityDTO
+    ) throws BeerNotFoundException, BeerStockExceededException, StockLocationsDisabledException;
+
+    @Operation(
+            summary = "Increment stock at a location",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Location after the increment",
+                            content = @Content(schema = @Schema(implementation = LocationStockDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Quantity exceeds the location capacity"),
+                    @ApiResponse(responseCode = "404", description = "Beer or location not found")
+            }
+    )
+    LocationStockDTO incrementAtLocation(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Name of the location", required = true)
+            @PathVariable String location,
+            @Parameter(description = "Quantity to increment", required = true)
+            QuantityDTO quantityDTO
+    ) throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException;
+
+    @Operation(
+            summary = "Decrement stock at a location",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Location after the decrement",
+                            content = @Content(schema = @Schema(implementation = LocationStockDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Quantity exceeds the stock at the location"),
+                    @ApiResponse(responseCode = "404", description = "Beer or location not found")
+            }
+    )
+    LocationStockDTO decrementAtLocation(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Name of the location", required = true)
+            @PathVariable String location,
+            @Parameter(description = "Quantity to decrement", required = true)
+            QuantityDTO quantityDTO
+    ) throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException;
+
+    @Operation(
+            summary = "Transfer stock between locations",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stock per location after the transfer",
+                            content = @Content(schema = @Schema(implementation = BeerLocationsDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Not enough stock at the source, "
+                            + "not enough capacity at the target, or same source and target"),
+                    @ApiResponse(responseCode = "404", description = "Beer or location not found")
+            }
+    )
+    BeerLocationsDTO transfer(
+            @Parameter(description = "ID of the beer", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Source and target locations and the quantity to move", required = true)
+            StockTransferDTO stockTransferDTO
+    ) throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException,
+            InvalidParameterException;
 }
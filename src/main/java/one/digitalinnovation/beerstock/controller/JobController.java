@@ -0,0 +1,79 @@
+package one.digitalinnovation.beerstock.controller;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.JobDTO;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.JobNotFoundException;
+import one.digitalinnovation.beerstock.exception.JobResultNotAvailableException;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import one.digitalinnovation.beerstock.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class JobController implements JobControllerDocs {
+
+    private final JobService jobService;
+
+    @PostMapping("/export")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobDTO submitExport() throws ServiceOverloadedException {
+        return jobService.submitExport();
+    }
+
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobDTO submitImport(@RequestBody List<BeerDTO> beers) throws ServiceOverloadedException {
+        return jobService.submitImport(beers);
+    }
+
+    @PostMapping("/bulk-delete")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobDTO submitBulkDelete(@RequestBody List<Long> ids) throws ServiceOverloadedException {
+        return jobService.submitBulkDelete(ids);
+    }
+
+    @PostMapping("/restock-plan")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobDTO submitRestockPlan(@RequestParam(defaultValue = "0.8") double targetFillRatio,
+                                    @RequestParam(defaultValue = "500") int maxQuantityPerOrder)
+            throws InvalidParameterException, ServiceOverloadedException {
+        return jobService.submitRestockPlan(targetFillRatio, maxQuantityPerOrder);
+    }
+
+    @GetMapping("/{id}")
+    public JobDTO findById(@PathVariable UUID id) throws JobNotFoundException {
+        return jobService.findById(id);
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Object> result(@PathVariable UUID id) throws JobNotFoundException, JobResultNotAvailableException {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("job-" + id + ".json").build().toString())
+                .body(jobService.result(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public JobDTO cancel(@PathVariable UUID id) throws JobNotFoundException {
+        return jobService.cancel(id);
+    }
+}
@@ -0,0 +1,121 @@
+package one.digitalinnovation.beerstock.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.JobDTO;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.JobNotFoundException;
+import one.digitalinnovation.beerstock.exception.JobResultNotAvailableException;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+import java.util.UUID;
+
+@Tag(name = "Catalog Jobs", description = "Long-running catalog operations executed in the background")
+public interface JobControllerDocs {
+
+    @Operation(
+            summary = "Export the catalog",
+            description = "Starts a job exporting every registered beer",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Job accepted",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "503", description = "Too many pending jobs")
+            }
+    )
+    JobDTO submitExport() throws ServiceOverloadedException;
+
+    @Operation(
+            summary = "Import beers",
+            description = "Starts a job registering the given beers; invalid or already registered beers are reported in the result",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Job accepted",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "503", description = "Too many pending jobs")
+            }
+    )
+    JobDTO submitImport(
+            @Parameter(description = "Beers to be registered", required = true)
+            List<BeerDTO> beers
+    ) throws ServiceOverloadedException;
+
+    @Operation(
+            summary = "Delete beers",
+            description = "Starts a job deleting the beers with the given ids; unknown ids are reported in the result",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Job accepted",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "503", description = "Too many pending jobs")
+            }
+    )
+    JobDTO submitBulkDelete(
+            @Parameter(description = "Ids of the beers to be deleted", required = true)
+            List<Long> ids
+    ) throws ServiceOverloadedException;
+
+    @Operation(
+            summary = "Compute a restock plan",
+            description = "Starts a job computing the catalog-wide restock plan",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Job accepted",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid fill ratio or order size"),
+                    @ApiResponse(responseCode = "503", description = "Too many pending jobs")
+            }
+    )
+    JobDTO submitRestockPlan(
+            @Parameter(description = "Fraction of max each beer is restocked up to, greater than 0 and at most 1")
+            double targetFillRatio,
+            @Parameter(description = "Maximum quantity in a single order, at least 1")
+            int maxQuantityPerOrder
+    ) throws InvalidParameterException, ServiceOverloadedException;
+
+    @Operation(
+            summary = "Find job by id",
+            description = "Returns the status and progress of a job",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Job found",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Job not found or expired")
+            }
+    )
+    JobDTO findById(
+            @Parameter(description = "Id of the job", required = true)
+            @PathVariable UUID id
+    ) throws JobNotFoundException;
+
+    @Operation(
+            summary = "Download job result",
+            description = "Returns the result of a succeeded job as a JSON attachment",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Job result"),
+                    @ApiResponse(responseCode = "404", description = "Job not found or expired"),
+                    @ApiResponse(responseCode = "409", description = "Job has not succeeded")
+            }
+    )
+    ResponseEntity<Object> result(
+            @Parameter(description = "Id of the job", required = true)
+            @PathVariable UUID id
+    ) throws JobNotFoundException, JobResultNotAvailableException;
+
+    @Operation(
+            summary = "Cancel job",
+            description = "Cancels a queued or running job; items already processed are kept",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Job after the cancellation request",
+                            content = @Content(schema = @Schema(implementation = JobDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Job not found or expired")
+            }
+    )
+    JobDTO cancel(
+            @Parameter(description = "Id of the job", required = true)
+            @PathVariable UUID id
+    ) throws JobNotFoundException;
+}
@@ -0,0 +1,33 @@
+package one.digitalinnovation.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchDTO {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid BeerDTO> beers;
+
+    /**
+     * Names are the key of the upsert, so every name may appear once per batch.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "must not contain the same beer name twice")
+    public boolean isNamesUnique() {
+        return beers == null || beers.stream().map(BeerDTO::getName).distinct().count() == beers.size();
+    }
+}
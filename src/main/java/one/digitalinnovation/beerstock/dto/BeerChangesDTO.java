@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChangesDTO {
+
+    /**
+     * Token to pass as {@code since} on the next call: the position reached in every change log.
+     */
+    private String token;
+
+    /**
+     * Whether more changes are waiting past the token, because the limit was reached.
+     */
+    private boolean hasMore;
+
+    /**
+     * Beers created or modified since the given token, in their current state.
+     */
+    private List<BeerDTO> beers;
+
+    /**
+     * Ids of the beers deleted since the given token.
+     */
+    private List<Long> deletedIds;
+}
@@ -1,5 +1,6 @@
 package one.digitalinnovation.beerstock.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.validation.constraints.Max;
@@ -13,10 +14,14 @@ import lombok.NoArgsConstructor;
 
 import one.digitalinnovation.beerstock.enums.BeerType;
 
+/**
+ * Properties left null, as in sparse fieldset responses, are not serialized.
+ */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BeerDTO {
 
     private Long id;
@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerLocationsDTO {
+
+    private Long beerId;
+
+    private int max;
+
+    /**
+     * Aggregate over the unassigned stock and every location.
+     */
+    private int quantity;
+
+    private int unassignedQuantity;
+
+    private int unassignedCapacity;
+
+    private List<LocationStockDTO> locations;
+}
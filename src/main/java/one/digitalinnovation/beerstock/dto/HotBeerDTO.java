@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotBeerDTO {
+
+    private Long beerId;
+
+    /**
+     * Estimated number of events, never below the actual number.
+     */
+    private long count;
+
+    /**
+     * Number of events the beer had at least.
+     */
+    private long guaranteedCount;
+}
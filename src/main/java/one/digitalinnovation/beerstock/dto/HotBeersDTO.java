@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotBeersDTO {
+
+    private HotBeerKind kind;
+
+    /**
+     * Events of this kind recorded by this instance since startup, over every beer.
+     */
+    private long events;
+
+    /**
+     * Most frequent beers first.
+     */
+    private List<HotBeerDTO> beers;
+}
@@ -0,0 +1,36 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import one.digitalinnovation.beerstock.enums.JobType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDTO {
+
+    private UUID id;
+
+    private JobType type;
+
+    private JobStatus status;
+
+    private long processed;
+
+    private long total;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+}
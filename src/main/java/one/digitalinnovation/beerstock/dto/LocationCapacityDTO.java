@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationCapacityDTO {
+
+    @NotNull
+    @Min(0)
+    @Max(500)
+    private Integer capacity;
+}
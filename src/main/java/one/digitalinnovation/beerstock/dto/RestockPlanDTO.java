@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestockPlanDTO {
+
+    private double targetFillRatio;
+
+    private int maxQuantityPerOrder;
+
+    private int totalQuantity;
+
+    private List<RestockOrderDTO> orders;
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferDTO {
+
+    @NotBlank
+    private String from;
+
+    @NotBlank
+    private String to;
+
+    @NotNull
+    @Min(1)
+    @Max(500)
+    private Integer quantity;
+}
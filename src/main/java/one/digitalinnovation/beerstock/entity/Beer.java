@@ -34,9 +34,19 @@ public class Beer {
     @Column(nullable = false)
     private int max;
 
+    /**
+     * Stock not assigned to any location.
+     */
     @Column(nullable = false)
     private int quantity;
 
+    /**
+     * Sum of the capacities handed to locations, see {@link BeerLocationStock}. The unassigned stock may
+     * only use what is left of {@code max}.
+     */
+    @Column(nullable = false)
+    private int allocatedCapacity;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Entry of the change log, appended in the transaction of every write of a beer, see
+ * {@code GET /api/v1/beers/-/changes}. Entries are numbered by a database sequence, so a number may be taken
+ * by a write that commits after writes with higher numbers, or that rolls back and leaves a gap.
+ */
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_beer_change_beer_id", columnList = "beer_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerChange {
+
+    @Id
+    @SequenceGenerator(name = "beer_change_sequence", sequenceName = "beer_change_sequence", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_change_sequence")
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    @Column(name = "beer_id", nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    /**
+     * Database time at which the writing transaction started.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,78 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Properties of a beer that can be requested on their own with the {@code fields} parameter.
+ */
+@Getter
+@AllArgsConstructor
+public enum BeerField {
+
+    ID("id"),
+    NAME("name"),
+    BRAND("brand"),
+    MAX("max"),
+    QUANTITY("quantity"),
+    TYPE("type");
+
+    private final String property;
+
+    /**
+     * @param fields comma-separated property names, such as {@code id,quantity}
+     * @return the requested fields, or null for a blank parameter, meaning every field
+     */
+    public static Set<BeerField> parse(String fields) throws InvalidParameterException {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<BeerField> parsedFields = EnumSet.noneOf(BeerField.class);
+        for (String property : fields.split(",")) {
+            parsedFields.add(fromProperty(property.trim()));
+        }
+        return parsedFields;
+    }
+
+    /**
+     * Like {@link #parse(String)}, for lookups that read the id whatever was requested: ID is added to the
+     * parsed fields, and {@link Selection#idRequested()} tells whether the parameter asked for it.
+     *
+     * @return the selection, or null for a blank parameter, meaning every field
+     */
+    public static Selection parseWithId(String fields) throws InvalidParameterException {
+        Set<BeerField> parsedFields = parse(fields);
+        return parsedFields == null ? null : new Selection(parsedFields, !parsedFields.add(ID));
+    }
+
+    private static BeerField fromProperty(String property) throws InvalidParameterException {
+        for (BeerField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new InvalidParameterException("fields", "must be a comma-separated list of id, name, brand, max, quantity and type");
+    }
+
+    public void set(BeerDTO beer, Object value) {
+        switch (this) {
+            case ID -> beer.setId(((Number) value).longValue());
+            case NAME -> beer.setName((String) value);
+            case BRAND -> beer.setBrand((String) value);
+            case MAX -> beer.setMax(((Number) value).intValue());
+            case QUANTITY -> beer.setQuantity(((Number) value).intValue());
+            case TYPE -> beer.setType((BeerType) value);
+        }
+    }
+
+    /**
+     * Fields to read, including the id, and whether the id is to be returned.
+     */
+    public record Selection(Set<BeerField> fields, boolean idRequested) {
+    }
+}
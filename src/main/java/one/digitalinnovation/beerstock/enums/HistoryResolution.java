@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum HistoryResolution {
+
+    RAW(0L),
+    MINUTE(60_000L),
+    HOUR(3_600_000L);
+
+    private final long bucketMillis;
+}
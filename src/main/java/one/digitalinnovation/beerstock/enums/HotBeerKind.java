@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum HotBeerKind {
+
+    REQUESTED("Lookups by name, stock history and location views"),
+    ADJUSTED("Stock adjustments, at a location or not, and transfers");
+
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.enums;
+
+public enum JobStatus {
+
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
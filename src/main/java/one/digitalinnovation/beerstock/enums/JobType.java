@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum JobType {
+
+    EXPORT("Full catalog export"),
+    IMPORT("Bulk import"),
+    BULK_DELETE("Bulk delete"),
+    RESTOCK_PLAN("Catalog-wide restock plan");
+
+    private final String description;
+}
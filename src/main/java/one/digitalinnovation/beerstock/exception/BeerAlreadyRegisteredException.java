@@ -1,12 +1,22 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.CONFLICT)
-public class BeerAlreadyRegisteredException extends Exception{
+public class BeerAlreadyRegisteredException extends BeerStockDomainException {
+
+    private final String beerName;
 
     public BeerAlreadyRegisteredException(String beerName) {
-        super(String.format("Beer with name %s already registered in the system.", beerName));
+        this.beerName = beerName;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Beer with name " + beerName + " already registered in the system.";
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,32 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.NOT_FOUND)
-public class BeerNotFoundException extends Exception {
+public class BeerNotFoundException extends BeerStockDomainException {
+
+    private final String beerName;
+    private final Long id;
 
     public BeerNotFoundException(String beerName) {
-        super(String.format("Beer with name %s not found in the system.", beerName));
+        this.beerName = beerName;
+        this.id = null;
     }
 
     public BeerNotFoundException(Long id) {
-        super(String.format("Beer with id %s not found in the system.", id));
+        this.beerName = null;
+        this.id = id;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    protected String formatMessage() {
+        if (beerName != null) {
+            return "Beer with name " + beerName + " not found in the system.";
+        }
+        return "Beer with id " + id + " not found in the system.";
     }
 }
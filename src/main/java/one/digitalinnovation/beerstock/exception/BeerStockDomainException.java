@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public abstract class BeerStockDomainException extends Exception {
+
+    protected BeerStockDomainException() {
+        super(null, null, false, false);
+    }
+
+    public abstract HttpStatus getStatus();
+
+    protected abstract String formatMessage();
+
+    @Override
+    public String getMessage() {
+        return formatMessage();
+    }
+}
@@ -1,12 +1,24 @@
 package one.digitalinnovation.beerstock.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerStockExceededException extends Exception {
+public class BeerStockExceededException extends BeerStockDomainException {
+
+    private final Long id;
+    private final int quantity;
 
     public BeerStockExceededException(Long id, int quantityToIncrement) {
-        super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
+        this.id = id;
+        this.quantity = quantityToIncrement;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Beers with " + id + " ID to increment informed exceeds the max stock capacity: " + quantity;
     }
 }
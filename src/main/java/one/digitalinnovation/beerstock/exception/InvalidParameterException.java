@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidParameterException extends BeerStockDomainException {
+
+    private final String parameter;
+    private final String constraint;
+
+    public InvalidParameterException(String parameter, String constraint) {
+        this.parameter = parameter;
+        this.constraint = constraint;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Parameter " + parameter + " " + constraint + ".";
+    }
+}
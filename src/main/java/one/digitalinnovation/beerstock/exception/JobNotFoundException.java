@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class JobNotFoundException extends BeerStockDomainException {
+
+    private final UUID jobId;
+
+    public JobNotFoundException(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Job with id " + jobId + " not found in the system.";
+    }
+}
@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstock.exception;
+
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class JobResultNotAvailableException extends BeerStockDomainException {
+
+    private final UUID jobId;
+    private final JobStatus jobStatus;
+
+    public JobResultNotAvailableException(UUID jobId, JobStatus jobStatus) {
+        this.jobId = jobId;
+        this.jobStatus = jobStatus;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Job with id " + jobId + " has no result, its status is " + jobStatus + ".";
+    }
+}
@@ -0,0 +1,33 @@
+package one.digitalinnovation.beerstock.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends BeerStockDomainException {
+
+    @Getter
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Whole seconds to wait, rounded up and at least one, as sent in the {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Too many concurrent requests, retry in " + getRetryAfterSeconds() + " seconds.";
+    }
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StockLocationNotFoundException extends BeerStockDomainException {
+
+    private final Long beerId;
+    private final String location;
+
+    public StockLocationNotFoundException(Long beerId, String location) {
+        this.beerId = beerId;
+        this.location = location;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Beer with id " + beerId + " has no stock location " + location + ".";
+    }
+}
@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StockLocationsDisabledException extends BeerStockDomainException {
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_IMPLEMENTED;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Stock locations are disabled on this server.";
+    }
+}
@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.history;
+
+import one.digitalinnovation.beerstock.dto.StockHistoryPointDTO;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory quantity-over-time history of every beer. Each sample is kept raw for the most recent
+ * changes and rolled up into minute and hour buckets (min/max/last) covering longer periods.
+ * <p>
+ * Removing a beer leaves a marker behind instead of its series, so that a sample of an adjustment
+ * still in flight when the beer was deleted is dropped rather than starting a new series. Ids are
+ * never reused, so the marker costs one map entry per deleted beer.
+ */
+public class StockHistory {
+
+    private static final int RAW_CAPACITY = 256;
+    private static final int MINUTE_CAPACITY = 24 * 60;
+    private static final int HOUR_CAPACITY = 7 * 24;
+
+    private static final Map<HistoryResolution, StockSeries> REMOVED = Collections.emptyMap();
+
+    private final ConcurrentMap<Long, Map<HistoryResolution, StockSeries>> seriesByBeer = new ConcurrentHashMap<>();
+
+    public void record(Long beerId, long timestampMillis, int quantity) {
+        Map<HistoryResolution, StockSeries> series = seriesByBeer.computeIfAbsent(beerId, id -> newSeries());
+        if (series == REMOVED) {
+            return;
+        }
+        synchronized (series) {
+            for (StockSeries resolutionSeries : series.values()) {
+                resolutionSeries.record(timestampMillis, quantity);
+            }
+        }
+    }
+
+    public List<StockHistoryPointDTO> query(Long beerId, long fromMillis, long toMillis, HistoryResolution resolution) {
+        Map<HistoryResolution, StockSeries> series = seriesByBeer.get(beerId);
+        if (series == null || series == REMOVED) {
+            return Collections.emptyList();
+        }
+        synchronized (series) {
+            return series.get(resolution).query(fromMillis, toMillis);
+        }
+    }
+
+    public void remove(Long beerId) {
+        seriesByBeer.put(beerId, REMOVED);
+    }
+
+    private static Map<HistoryResolution, StockSeries> newSeries() {
+        Map<HistoryResolution, StockSeries> series = new EnumMap<>(HistoryResolution.class);
+        series.put(HistoryResolution.RAW, new StockSeries(HistoryResolution.RAW.getBucketMillis(), RAW_CAPACITY));
+        series.put(HistoryResolution.MINUTE, new StockSeries(HistoryResolution.MINUTE.getBucketMillis(), MINUTE_CAPACITY));
+        series.put(HistoryResolution.HOUR, new StockSeries(HistoryResolution.HOUR.getBucketMillis(), HOUR_CAPACITY));
+        return series;
+    }
+}
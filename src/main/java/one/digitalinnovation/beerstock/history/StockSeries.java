@@ -0,0 +1,91 @@
+package one.digitalinnovation.beerstock.history;
+
+import one.digitalinnovation.beerstock.dto.StockHistoryPointDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ring buffer of min/max/last quantity buckets kept in parallel primitive arrays. With a bucket width of
+ * zero every sample is its own bucket. Arrays start small and grow until {@code capacity}, after which
+ * the oldest bucket is overwritten. Samples arriving late for an older bucket are dropped; a late sample
+ * of the newest bucket still counts towards its min and max but does not replace its last quantity.
+ * Not thread-safe.
+ */
+class StockSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long bucketMillis;
+    private final int capacity;
+
+    private long[] starts;
+    private int[] mins;
+    private int[] maxs;
+    private int[] lasts;
+    private int newest = -1;
+    private int size;
+    private long newestTimestampMillis;
+
+    StockSeries(long bucketMillis, int capacity) {
+        this.bucketMillis = bucketMillis;
+        this.capacity = capacity;
+        int initialCapacity = Math.min(INITIAL_CAPACITY, capacity);
+        this.starts = new long[initialCapacity];
+        this.mins = new int[initialCapacity];
+        this.maxs = new int[initialCapacity];
+        this.lasts = new int[initialCapacity];
+    }
+
+    void record(long timestampMillis, int quantity) {
+        long bucketStart = bucketMillis == 0 ? timestampMillis : timestampMillis - Math.floorMod(timestampMillis, bucketMillis);
+        if (size > 0 && bucketStart < starts[newest]) {
+            return;
+        }
+        if (size > 0 && bucketMillis != 0 && bucketStart == starts[newest]) {
+            mins[newest] = Math.min(mins[newest], quantity);
+            maxs[newest] = Math.max(maxs[newest], quantity);
+            if (timestampMillis >= newestTimestampMillis) {
+                lasts[newest] = quantity;
+                newestTimestampMillis = timestampMillis;
+            }
+            return;
+        }
+
+        if (size == starts.length && size < capacity) {
+            grow();
+        }
+        newest = (newest + 1) % starts.length;
+        starts[newest] = bucketStart;
+        mins[newest] = quantity;
+        maxs[newest] = quantity;
+        lasts[newest] = quantity;
+        newestTimestampMillis = timestampMillis;
+        size = Math.min(size + 1, starts.length);
+    }
+
+    List<StockHistoryPointDTO> query(long fromMillis, long toMillis) {
+        List<StockHistoryPointDTO> points = new ArrayList<>();
+        int oldest = Math.floorMod(newest - size + 1, starts.length);
+        for (int i = 0; i < size; i++) {
+            int index = (oldest + i) % starts.length;
+            if (starts[index] >= fromMillis && starts[index] <= toMillis) {
+                points.add(new StockHistoryPointDTO(Instant.ofEpochMilli(starts[index]), mins[index], maxs[index], lasts[index]));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Only called while the ring has not wrapped yet, so the buckets are already in order from index 0.
+     */
+    private void grow() {
+        int newCapacity = Math.min(capacity, starts.length * 2);
+        starts = Arrays.copyOf(starts, newCapacity);
+        mins = Arrays.copyOf(mins, newCapacity);
+        maxs = Arrays.copyOf(maxs, newCapacity);
+        lasts = Arrays.copyOf(lasts, newCapacity);
+    }
+}
@@ -0,0 +1,45 @@
+package one.digitalinnovation.beerstock.hot;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the hot beer event a handler marked with {@link #recordOnSuccess} once the request has completed
+ * with a 2xx status, so that failed lookups and rejected adjustments are not counted.
+ */
+public class HotBeerInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = HotBeerInterceptor.class.getName() + ".event";
+
+    private record Event(HotBeerKind kind, Long beerId) {
+    }
+
+    private final HotBeers hotBeers;
+
+    public HotBeerInterceptor(HotBeers hotBeers) {
+        this.hotBeers = hotBeers;
+    }
+
+    /**
+     * Marks the current request as an event of the given kind for the given beer, replacing an earlier mark.
+     */
+    public static void recordOnSuccess(HotBeerKind kind, Long beerId) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(EVENT_ATTRIBUTE, new Event(kind, beerId), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) instanceof Event event) {
+            request.removeAttribute(EVENT_ATTRIBUTE);
+            if (ex == null && HttpStatus.valueOf(response.getStatus()).is2xxSuccessful()) {
+                hotBeers.record(event.kind(), event.beerId());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package one.digitalinnovation.beerstock.hot;
+
+import one.digitalinnovation.beerstock.dto.HotBeerDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Most frequent beers of a concurrent stream of events, in fixed memory. Events go to one of several
+ * {@link SpaceSavingSketch stripes}, each behind its own lock: the stripe of the recording thread, or the
+ * next free one when it is busy, so that threads rarely wait. Stripes are merged when read.
+ */
+public class HotBeerTracker {
+
+    private final SpaceSavingSketch[] sketches;
+    private final ReentrantLock[] locks;
+    private final int stripeMask;
+    private final LongAdder events = new LongAdder();
+
+    /**
+     * @param stripes rounded up to a power of two
+     * @param capacity counters per stripe
+     */
+    public HotBeerTracker(int stripes, int capacity) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes * 2 - 1));
+        sketches = new SpaceSavingSketch[stripeCount];
+        locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            sketches[i] = new SpaceSavingSketch(capacity);
+            locks[i] = new ReentrantLock();
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    public void record(long beerId) {
+        int home = (int) Thread.currentThread().threadId() & stripeMask;
+        for (int i = 0; i <= stripeMask; i++) {
+            int stripe = (home + i) & stripeMask;
+            if (locks[stripe].tryLock()) {
+                offer(stripe, beerId);
+                return;
+            }
+        }
+        locks[home].lock();
+        offer(home, beerId);
+    }
+
+    public long events() {
+        return events.sum();
+    }
+
+    /**
+     * Merges the stripes: a beer missing from a stripe may have had up to the lowest count of that stripe
+     * there, which is added to both its estimate and its error.
+     *
+     * @return up to {@code limit} beers, most frequent first
+     */
+    public List<HotBeerDTO> top(int limit) {
+        Map<Long, long[]> merged = new HashMap<>();
+        long minCountSum = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            locks[stripe].lock();
+            try {
+                long minCount = sketches[stripe].minCount();
+                minCountSum += minCount;
+                sketches[stripe].forEach((key, count, error) -> {
+                    long[] counter = merged.computeIfAbsent(key, beerId -> new long[3]);
+                    counter[0] += count;
+                    counter[1] += error;
+                    counter[2] += minCount;
+                });
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+
+        List<HotBeerDTO> hotBeers = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+            long[] counter = entry.getValue();
+            long missingCount = minCountSum - counter[2];
+            long count = counter[0] + missingCount;
+            hotBeers.add(new HotBeerDTO(entry.getKey(), count, count - counter[1] - missingCount));
+        }
+        hotBeers.sort(Comparator.comparingLong(HotBeerDTO::getCount).reversed()
+                .thenComparing(HotBeerDTO::getBeerId));
+        return hotBeers.size() > limit ? List.copyOf(hotBeers.subList(0, limit)) : hotBeers;
+    }
+
+    private void offer(int stripe, long beerId) {
+        try {
+            sketches[stripe].offer(beerId, 1);
+        } finally {
+            locks[stripe].unlock();
+        }
+        events.increment();
+    }
+}
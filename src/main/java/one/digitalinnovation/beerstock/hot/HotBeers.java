@@ -0,0 +1,103 @@
+package one.digitalinnovation.beerstock.hot;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import one.digitalinnovation.beerstock.dto.HotBeerDTO;
+import one.digitalinnovation.beerstock.dto.HotBeersDTO;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * Most requested and most adjusted beers of the traffic seen by this instance, one {@link HotBeerTracker}
+ * per {@link HotBeerKind}. Also published as metrics: the events of each kind, and for each rank of the
+ * top beers the beer id and its estimated count, computed at most once per refresh interval.
+ */
+public class HotBeers implements MeterBinder {
+
+    private record Ranking(long computedAtNanos, List<HotBeerDTO> beers) {
+    }
+
+    private final Map<HotBeerKind, HotBeerTracker> trackers = new EnumMap<>(HotBeerKind.class);
+    private final Map<HotBeerKind, AtomicReference<Ranking>> rankings = new EnumMap<>(HotBeerKind.class);
+    private final int capacity;
+    private final int metricsTop;
+    private final long metricsRefreshNanos;
+
+    public HotBeers(int stripes, int capacity, int metricsTop, Duration metricsRefresh) {
+        for (HotBeerKind kind : HotBeerKind.values()) {
+            trackers.put(kind, new HotBeerTracker(stripes, capacity));
+            rankings.put(kind, new AtomicReference<>());
+        }
+        this.capacity = capacity;
+        this.metricsTop = metricsTop;
+        this.metricsRefreshNanos = metricsRefresh.toNanos();
+    }
+
+    public void record(HotBeerKind kind, Long beerId) {
+        if (beerId != null) {
+            trackers.get(kind).record(beerId);
+        }
+    }
+
+    /**
+     * @param limit at most the number of counters per sketch, beyond which estimates mean nothing
+     */
+    public HotBeersDTO top(HotBeerKind kind, int limit) throws InvalidParameterException {
+        if (limit < 1 || limit > capacity) {
+            throw new InvalidParameterException("limit", "must be between 1 and " + capacity);
+        }
+        HotBeerTracker tracker = trackers.get(kind);
+        return HotBeersDTO.builder()
+                .kind(kind)
+                .events(tracker.events())
+                .beers(tracker.top(limit))
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (HotBeerKind kind : HotBeerKind.values()) {
+            String kindTag = kind.name().toLowerCase();
+            FunctionCounter.builder("beerstock.hot.beers.events", trackers.get(kind), HotBeerTracker::events)
+                    .description("Events recorded for the hot beer ranking")
+                    .tag("kind", kindTag)
+                    .register(registry);
+            for (int rank = 1; rank <= metricsTop; rank++) {
+                int index = rank - 1;
+                Gauge.builder("beerstock.hot.beers.id", () -> rankedValue(kind, index, HotBeerDTO::getBeerId))
+                        .description("Id of the beer at this rank of the hot beer ranking")
+                        .tags("kind", kindTag, "rank", Integer.toString(rank))
+                        .register(registry);
+                Gauge.builder("beerstock.hot.beers.count", () -> rankedValue(kind, index, HotBeerDTO::getCount))
+                        .description("Estimated events of the beer at this rank of the hot beer ranking")
+                        .tags("kind", kindTag, "rank", Integer.toString(rank))
+                        .register(registry);
+            }
+        }
+    }
+
+    private double rankedValue(HotBeerKind kind, int index, ToLongFunction<HotBeerDTO> value) {
+        List<HotBeerDTO> beers = ranking(kind).beers();
+        return index < beers.size() ? value.applyAsLong(beers.get(index)) : Double.NaN;
+    }
+
+    private Ranking ranking(HotBeerKind kind) {
+        AtomicReference<Ranking> cachedRanking = rankings.get(kind);
+        Ranking ranking = cachedRanking.get();
+        long now = System.nanoTime();
+        if (ranking == null || now - ranking.computedAtNanos() > metricsRefreshNanos) {
+            ranking = new Ranking(now, trackers.get(kind).top(metricsTop));
+            cachedRanking.set(ranking);
+        }
+        return ranking;
+    }
+}
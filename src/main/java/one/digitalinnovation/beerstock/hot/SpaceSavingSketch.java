@@ -0,0 +1,180 @@
+package one.digitalinnovation.beerstock.hot;
+
+import java.util.Arrays;
+
+/**
+ * Space-Saving summary of the most frequent keys of a stream, in a fixed number of counters. A key without
+ * a counter takes over the counter with the lowest count and inherits that count as its error, so that an
+ * estimate never undercounts and overcounts by at most its error. Counters sit in a min-heap and are found
+ * through an open-addressing index, so that offering a key allocates nothing. Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    @FunctionalInterface
+    public interface CounterVisitor {
+        void visit(long key, long count, long error);
+    }
+
+    private static final int EMPTY = -1;
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+
+    /**
+     * Counter slots ordered as a binary min-heap on their count, and the heap position of every slot.
+     */
+    private final int[] heap;
+    private final int[] heapPositions;
+
+    /**
+     * Linear-probing index from key to counter slot.
+     */
+    private final long[] indexKeys;
+    private final int[] indexSlots;
+    private final int indexMask;
+
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        keys = new long[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        heap = new int[capacity];
+        heapPositions = new int[capacity];
+        int indexSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        indexKeys = new long[indexSize];
+        indexSlots = new int[indexSize];
+        indexMask = indexSize - 1;
+        Arrays.fill(indexSlots, EMPTY);
+    }
+
+    public void offer(long key, long increment) {
+        int slot = find(key);
+        if (slot != EMPTY) {
+            counts[slot] += increment;
+            siftDown(heapPositions[slot]);
+            return;
+        }
+        if (size < capacity) {
+            slot = size++;
+            keys[slot] = key;
+            counts[slot] = increment;
+            errors[slot] = 0;
+            addToIndex(key, slot);
+            siftUp(slot, slot);
+            return;
+        }
+        slot = heap[0];
+        long lowestCount = counts[slot];
+        removeFromIndex(keys[slot]);
+        keys[slot] = key;
+        counts[slot] = lowestCount + increment;
+        errors[slot] = lowestCount;
+        addToIndex(key, slot);
+        siftDown(0);
+    }
+
+    /**
+     * @return the count a key without a counter may at most have had, 0 while counters are still free
+     */
+    public long minCount() {
+        return size < capacity ? 0 : counts[heap[0]];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(CounterVisitor visitor) {
+        for (int slot = 0; slot < size; slot++) {
+            visitor.visit(keys[slot], counts[slot], errors[slot]);
+        }
+    }
+
+    private int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & indexMask;
+    }
+
+    private int find(long key) {
+        for (int i = hash(key); indexSlots[i] != EMPTY; i = (i + 1) & indexMask) {
+            if (indexKeys[i] == key) {
+                return indexSlots[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void addToIndex(long key, int slot) {
+        int i = hash(key);
+        while (indexSlots[i] != EMPTY) {
+            i = (i + 1) & indexMask;
+        }
+        indexKeys[i] = key;
+        indexSlots[i] = slot;
+    }
+
+    /**
+     * Removes the entry and shifts back the entries of its probe run, so that lookups need no tombstones.
+     */
+    private void removeFromIndex(long key) {
+        int free = hash(key);
+        while (indexKeys[free] != key || indexSlots[free] == EMPTY) {
+            free = (free + 1) & indexMask;
+        }
+        indexSlots[free] = EMPTY;
+        for (int i = (free + 1) & indexMask; indexSlots[i] != EMPTY; i = (i + 1) & indexMask) {
+            int home = hash(indexKeys[i]);
+            boolean reachableFromHome = free <= i ? free < home && home <= i : free < home || home <= i;
+            if (!reachableFromHome) {
+                indexKeys[free] = indexKeys[i];
+                indexSlots[free] = indexSlots[i];
+                indexSlots[i] = EMPTY;
+                free = i;
+            }
+        }
+    }
+
+    private void siftUp(int position, int slot) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentSlot = heap[parent];
+            if (counts[parentSlot] <= counts[slot]) {
+                break;
+            }
+            heap[position] = parentSlot;
+            heapPositions[parentSlot] = position;
+            position = parent;
+        }
+        heap[position] = slot;
+        heapPositions[slot] = position;
+    }
+
+    private void siftDown(int position) {
+        int slot = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                child++;
+            }
+            int childSlot = heap[child];
+            if (counts[slot] <= counts[childSlot]) {
+                break;
+            }
+            heap[position] = childSlot;
+            heapPositions[childSlot] = position;
+            position = child;
+        }
+        heap[position] = slot;
+        heapPositions[slot] = position;
+    }
+}
@@ -0,0 +1,79 @@
+package one.digitalinnovation.beerstock.job;
+
+import lombok.Getter;
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import one.digitalinnovation.beerstock.enums.JobType;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+@Getter
+public class Job {
+
+    private final UUID id = UUID.randomUUID();
+    private final JobType type;
+    private final JobProgress progress = new JobProgress();
+    private final Instant submittedAt = Instant.now();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Object result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public Job(JobType type) {
+        this.type = type;
+    }
+
+    /**
+     * Attaching under the lock of {@link #cancel()} makes sure a job cancelled before its future was known
+     * still gets its thread interrupted.
+     */
+    synchronized void attach(Future<?> future) {
+        this.future = future;
+        if (status == JobStatus.CANCELLED) {
+            future.cancel(true);
+        }
+    }
+
+    synchronized boolean start() {
+        if (status != JobStatus.QUEUED) {
+            return false;
+        }
+        status = JobStatus.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void succeed(Object result) {
+        if (!status.isFinished()) {
+            this.result = result;
+            finish(JobStatus.SUCCEEDED);
+        }
+    }
+
+    synchronized void fail(String error) {
+        if (!status.isFinished()) {
+            this.error = error;
+            finish(JobStatus.FAILED);
+        }
+    }
+
+    public synchronized boolean cancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        finish(JobStatus.CANCELLED);
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    private void finish(JobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
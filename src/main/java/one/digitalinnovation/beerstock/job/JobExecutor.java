@@ -0,0 +1,109 @@
+package one.digitalinnovation.beerstock.job;
+
+import one.digitalinnovation.beerstock.enums.JobType;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs jobs on virtual threads, at most {@code maxConcurrentJobs} at a time so that heavy catalog work
+ * cannot starve request traffic of database connections. Jobs beyond that wait in {@code QUEUED}; once
+ * {@code maxPendingJobs} are queued or running, new submissions are rejected. Finished jobs are kept
+ * for {@code retention} so their result can be downloaded, and evicted by the next submission or lookup.
+ */
+public class JobExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JobExecutor.class);
+
+    /**
+     * Reported instead of the exception, whose message may reveal internals; the exception is logged.
+     */
+    static final String FAILURE_MESSAGE = "Job failed unexpectedly, see the server log";
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("beerstock-job-", 0).factory());
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingJobs = new AtomicInteger();
+    private final Semaphore runPermits;
+    private final int maxPendingJobs;
+    private final Duration retention;
+    private final Duration retryAfter;
+
+    public JobExecutor(int maxConcurrentJobs, int maxPendingJobs, Duration retention, Duration retryAfter) {
+        this.runPermits = new Semaphore(maxConcurrentJobs);
+        this.maxPendingJobs = maxPendingJobs;
+        this.retention = retention;
+        this.retryAfter = retryAfter;
+    }
+
+    public Job submit(JobType type, JobTask task) throws ServiceOverloadedException {
+        evictExpiredJobs();
+        if (pendingJobs.incrementAndGet() > maxPendingJobs) {
+            pendingJobs.decrementAndGet();
+            throw new ServiceOverloadedException(retryAfter);
+        }
+        Job job = new Job(type);
+        jobs.put(job.getId(), job);
+        FutureTask<Void> future = new FutureTask<>(() -> run(job, task), null) {
+            @Override
+            protected void done() {
+                pendingJobs.decrementAndGet();
+            }
+        };
+        job.attach(future);
+        executor.execute(future);
+        return job;
+    }
+
+    public Optional<Job> find(UUID id) {
+        evictExpiredJobs();
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * The pending count is released by the future once it is done, which also covers a job cancelled
+     * before it started to run.
+     */
+    private void run(Job job, JobTask task) {
+        try {
+            runPermits.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            if (job.start()) {
+                job.succeed(task.run(job.getProgress()));
+            }
+        } catch (CancellationException | InterruptedException e) {
+            job.cancel();
+        } catch (Throwable e) {
+            log.error("Job {} of type {} failed", job.getId(), job.getType(), e);
+            job.fail(FAILURE_MESSAGE);
+        } finally {
+            runPermits.release();
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(expiredBefore));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
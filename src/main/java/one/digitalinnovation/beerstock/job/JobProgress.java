@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.job;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a running job, updated by the job itself. {@link #advance()} also acts as a cancellation
+ * point: it throws once the job has been cancelled.
+ */
+public class JobProgress {
+
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total;
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void advance() {
+        checkpoint();
+        processed.incrementAndGet();
+    }
+
+    public void checkpoint() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Job cancelled");
+        }
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
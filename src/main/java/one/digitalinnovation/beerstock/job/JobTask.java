@@ -0,0 +1,10 @@
+package one.digitalinnovation.beerstock.job;
+
+@FunctionalInterface
+public interface JobTask {
+
+    /**
+     * @return the job result, made available for download once the job succeeded
+     */
+    Object run(JobProgress progress) throws Exception;
+}
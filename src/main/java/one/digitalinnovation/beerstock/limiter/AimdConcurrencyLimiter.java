@@ -0,0 +1,67 @@
+package one.digitalinnovation.beerstock.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted with additive increase / multiplicative decrease on observed latency: each
+ * request completing under the latency threshold grows the limit by {@code 1 / limit} (about one slot per
+ * round trip), each request over it shrinks the limit by {@code backoffRatio}. The limit is a double kept
+ * as its bits in an {@link AtomicLong}, so samples update it with a compare-and-set loop instead of a lock.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos);
+    }
+
+    private void onSample(long latencyNanos) {
+        while (true) {
+            long currentBits = limitBits.get();
+            double limit = Double.longBitsToDouble(currentBits);
+            double newLimit = latencyNanos > latencyThresholdNanos ? limit * backoffRatio : limit + 1.0 / limit;
+            newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            if (newLimit == limit || limitBits.compareAndSet(currentBits, Double.doubleToRawLongBits(newLimit))) {
+                return;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admits requests through the scan limiter (GETs matching one of the scan path patterns, which read the
+ * whole catalog), the read limiter (other GETs) or the write limiter (everything else), rejecting them
+ * straight away once the limit is reached instead of letting them queue. Scans get their own limiter so
+ * that their latency does not shrink the limit of single-beer reads.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final AimdConcurrencyLimiter readLimiter;
+    private final AimdConcurrencyLimiter scanLimiter;
+    private final List<String> scanPathPatterns;
+    private final AimdConcurrencyLimiter writeLimiter;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitInterceptor(AimdConcurrencyLimiter readLimiter, AimdConcurrencyLimiter scanLimiter,
+                                       List<String> scanPathPatterns, AimdConcurrencyLimiter writeLimiter,
+                                       Duration retryAfter) {
+        this.readLimiter = readLimiter;
+        this.scanLimiter = scanLimiter;
+        this.scanPathPatterns = List.copyOf(scanPathPatterns);
+        this.writeLimiter = writeLimiter;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws ServiceOverloadedException {
+        AimdConcurrencyLimiter limiter = !HttpMethod.GET.matches(request.getMethod()) ? writeLimiter
+                : isScan(request) ? scanLimiter
+                : readLimiter;
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException(retryAfter);
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter != null) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            long start = (Long) request.getAttribute(START_ATTRIBUTE);
+            ((AimdConcurrencyLimiter) limiter).release(System.nanoTime() - start);
+        }
+    }
+
+    private boolean isScan(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return scanPathPatterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
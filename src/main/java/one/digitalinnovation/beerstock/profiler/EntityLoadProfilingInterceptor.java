@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the entities Hibernate hydrates for the current request.
+ */
+public class EntityLoadProfilingInterceptor implements Interceptor {
+
+    private final RequestProfiler requestProfiler;
+
+    public EntityLoadProfilingInterceptor(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        requestProfiler.recordEntityLoaded();
+        return false;
+    }
+}
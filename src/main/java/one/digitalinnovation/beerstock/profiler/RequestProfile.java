@@ -0,0 +1,65 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database and allocation cost of one request, filled in by the thread serving it.
+ */
+@Getter
+public class RequestProfile {
+
+    private final String endpoint;
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final long startAllocatedBytes;
+
+    private int statementCount;
+    private long jdbcNanos;
+    private int entitiesLoaded;
+    private long allocatedBytes = -1;
+    private long durationNanos;
+    private String mostRepeatedStatement;
+    private int mostRepeatedStatementCount;
+    private final List<String> violations = new ArrayList<>();
+
+    private final Map<String, Integer> executionsPerStatement = new HashMap<>();
+
+    RequestProfile(String endpoint, long startAllocatedBytes) {
+        this.endpoint = endpoint;
+        this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statementCount++;
+        jdbcNanos += elapsedNanos;
+        int executions = executionsPerStatement.merge(sql, 1, Integer::sum);
+        if (executions > mostRepeatedStatementCount) {
+            mostRepeatedStatementCount = executions;
+            mostRepeatedStatement = sql;
+        }
+    }
+
+    void recordEntityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void finish(long endAllocatedBytes) {
+        durationNanos = System.nanoTime() - startNanos;
+        if (startAllocatedBytes >= 0 && endAllocatedBytes >= 0) {
+            allocatedBytes = endAllocatedBytes - startAllocatedBytes;
+        }
+    }
+
+    void addViolation(String violation) {
+        violations.add(violation);
+    }
+
+    public boolean isFlagged() {
+        return !violations.isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.profiler;
+
+/**
+ * Per-request limits; a request exceeding any of them is flagged. {@code repeatedStatementThreshold} is
+ * the number of executions of one identical SQL statement taken as an N+1 pattern.
+ */
+public record RequestProfileBudget(int maxStatements, long maxJdbcMillis, int maxEntitiesLoaded,
+                                   long maxAllocatedBytes, int repeatedStatementThreshold) {
+
+    /**
+     * Checks the profile against the budget, recording a violation for every exceeded limit.
+     *
+     * @return how far the profile is over budget, the largest ratio of measured value to limit
+     */
+    double evaluate(RequestProfile profile) {
+        double severity = 0;
+        if (profile.getStatementCount() > maxStatements) {
+            profile.addViolation("statements " + profile.getStatementCount() + " > " + maxStatements);
+            severity = Math.max(severity, (double) profile.getStatementCount() / maxStatements);
+        }
+        long jdbcMillis = profile.getJdbcNanos() / 1_000_000;
+        if (jdbcMillis > maxJdbcMillis) {
+            profile.addViolation("jdbc time " + jdbcMillis + "ms > " + maxJdbcMillis + "ms");
+            severity = Math.max(severity, (double) jdbcMillis / Math.max(1, maxJdbcMillis));
+        }
+        if (profile.getEntitiesLoaded() > maxEntitiesLoaded) {
+            profile.addViolation("entities loaded " + profile.getEntitiesLoaded() + " > " + maxEntitiesLoaded);
+            severity = Math.max(severity, (double) profile.getEntitiesLoaded() / Math.max(1, maxEntitiesLoaded));
+        }
+        if (profile.getAllocatedBytes() > maxAllocatedBytes) {
+            profile.addViolation("allocated bytes " + profile.getAllocatedBytes() + " > " + maxAllocatedBytes);
+            severity = Math.max(severity, (double) profile.getAllocatedBytes() / Math.max(1, maxAllocatedBytes));
+        }
+        if (profile.getMostRepeatedStatementCount() >= repeatedStatementThreshold) {
+            profile.addViolation("possible N+1: statement executed " + profile.getMostRepeatedStatementCount()
+                    + " times: " + profile.getMostRepeatedStatement());
+            severity = Math.max(severity, (double) profile.getMostRepeatedStatementCount() / repeatedStatementThreshold);
+        }
+        return severity;
+    }
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import java.time.Instant;
+import java.util.List;
+
+public record RequestProfileSummary(String endpoint, Instant startedAt, int statementCount, double jdbcMillis,
+                                    int entitiesLoaded, long allocatedBytes, double durationMillis,
+                                    double severity, List<String> violations) {
+
+    static RequestProfileSummary of(RequestProfile profile, double severity) {
+        return new RequestProfileSummary(profile.getEndpoint(),
+                Instant.ofEpochMilli(profile.getStartedAtMillis()),
+                profile.getStatementCount(),
+                profile.getJdbcNanos() / 1_000_000.0,
+                profile.getEntitiesLoaded(),
+                profile.getAllocatedBytes(),
+                profile.getDurationNanos() / 1_000_000.0,
+                severity,
+                List.copyOf(profile.getViolations()));
+    }
+}
@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the profile of the request served by the current thread and keeps the requests that went
+ * furthest over budget. Statements and entity loads happening on other threads, such as the scatter
+ * queries of the sharded repository, are not attributed to the request.
+ */
+public class RequestProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestProfiler.class);
+
+    private static final Comparator<RequestProfileSummary> BY_SEVERITY =
+            Comparator.comparingDouble(RequestProfileSummary::severity);
+
+    private final ThreadLocal<RequestProfile> current = new ThreadLocal<>();
+    private final RequestProfileBudget budget;
+    private final int worstOffendersSize;
+    private final PriorityQueue<RequestProfileSummary> worstOffenders = new PriorityQueue<>(BY_SEVERITY);
+    private final AtomicLong profiledRequests = new AtomicLong();
+    private final AtomicLong flaggedRequests = new AtomicLong();
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public RequestProfiler(RequestProfileBudget budget, int worstOffendersSize) {
+        this.budget = budget;
+        this.worstOffendersSize = worstOffendersSize;
+        this.threadMXBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() ? bean : null;
+    }
+
+    public void begin(String endpoint) {
+        current.set(new RequestProfile(endpoint, currentThreadAllocatedBytes()));
+    }
+
+    /**
+     * Ends the profile of the current request, flagging and retaining it when it is over budget.
+     *
+     * @return the finished profile, or null when no request was being profiled
+     */
+    public RequestProfile end() {
+        RequestProfile profile = current.get();
+        if (profile == null) {
+            return null;
+        }
+        current.remove();
+        profile.finish(currentThreadAllocatedBytes());
+        profiledRequests.incrementAndGet();
+        double severity = budget.evaluate(profile);
+        if (profile.isFlagged()) {
+            flaggedRequests.incrementAndGet();
+            log.warn("Request {} over budget: {}", profile.getEndpoint(), profile.getViolations());
+            retain(RequestProfileSummary.of(profile, severity));
+        }
+        return profile;
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        RequestProfile profile = current.get();
+        if (profile != null) {
+            profile.recordStatement(sql, elapsedNanos);
+        }
+    }
+
+    void recordEntityLoaded() {
+        RequestProfile profile = current.get();
+        if (profile != null) {
+            profile.recordEntityLoaded();
+        }
+    }
+
+    public long getProfiledRequests() {
+        return profiledRequests.get();
+    }
+
+    public long getFlaggedRequests() {
+        return flaggedRequests.get();
+    }
+
+    /**
+     * @return the retained over-budget requests, worst first
+     */
+    public synchronized List<RequestProfileSummary> worstOffenders() {
+        List<RequestProfileSummary> offenders = new ArrayList<>(worstOffenders);
+        offenders.sort(BY_SEVERITY.reversed());
+        return offenders;
+    }
+
+    public synchronized void reset() {
+        worstOffenders.clear();
+        profiledRequests.set(0);
+        flaggedRequests.set(0);
+    }
+
+    private synchronized void retain(RequestProfileSummary summary) {
+        worstOffenders.add(summary);
+        if (worstOffenders.size() > worstOffendersSize) {
+            worstOffenders.poll();
+        }
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or -1 where the JVM cannot tell, as for
+     * virtual threads
+     */
+    private long currentThreadAllocatedBytes() {
+        if (threadMXBean == null || !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+}
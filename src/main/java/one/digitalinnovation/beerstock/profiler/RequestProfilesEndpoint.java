@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/requestprofiles}: the requests that went furthest over their budget.
+ */
+@Endpoint(id = "requestprofiles")
+public class RequestProfilesEndpoint {
+
+    private final RequestProfiler requestProfiler;
+
+    public RequestProfilesEndpoint(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(requestProfiler.getProfiledRequests(), requestProfiler.getFlaggedRequests(),
+                requestProfiler.worstOffenders());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        requestProfiler.reset();
+    }
+
+    public record Report(long profiledRequests, long flaggedRequests, List<RequestProfileSummary> worstOffenders) {
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Change log entry as read by the change feed, with the database time of the read.
+ */
+public record BeerChangeEntry(long changeSequence, Long beerId, boolean deleted, Instant createdAt, Instant readAt) {
+
+    /**
+     * Whether the entry was written long enough before the read that every write which took a lower
+     * sequence has committed or rolled back by now.
+     */
+    public boolean isSettled(Duration settleTime) {
+        return createdAt.plus(settleTime).isBefore(readAt);
+    }
+}
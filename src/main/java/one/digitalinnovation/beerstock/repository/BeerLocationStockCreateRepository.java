@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BeerLocationStockCreateRepository {
+
+    /**
+     * Creates the location without capacity unless it exists. The insert runs within a savepoint, so that
+     * when a concurrent call creates the same location first, the unique violation is rolled back to it
+     * instead of failing the surrounding transaction.
+     *
+     * @return false when the location already existed or was created concurrently
+     */
+    @Transactional
+    boolean createIfAbsent(Long beerId, String location);
+}
@@ -0,0 +1,45 @@
+package one.digitalinnovation.beerstock.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+public class BeerLocationStockCreateRepositoryImpl implements BeerLocationStockCreateRepository {
+
+    private static final String MERGE_SQL = "merge into beer_location_stock s"
+            + " using (values (cast(? as bigint), cast(? as varchar(255)))) v(beer_id, location)"
+            + " on s.beer_id = v.beer_id and s.location = v.location"
+            + " when not matched then insert (beer_id, location, quantity, capacity)"
+            + " values (v.beer_id, v.location, 0, 0)";
+
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private final EntityManager entityManager;
+
+    public BeerLocationStockCreateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean createIfAbsent(Long beerId, String location) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+                statement.setLong(1, beerId);
+                statement.setString(2, location);
+                int createdRows = statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return createdRows > 0;
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION_STATE.equals(e.getSQLState())) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+    }
+}
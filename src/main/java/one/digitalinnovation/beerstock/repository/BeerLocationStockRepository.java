@@ -0,0 +1,67 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.BeerLocationStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface BeerLocationStockRepository extends JpaRepository<BeerLocationStock, Long>,
+        BeerLocationStockCreateRepository {
+
+    @Transactional
+    Optional<BeerLocationStock> findByBeerIdAndLocation(Long beerId, String location);
+
+    @Transactional(readOnly = true)
+    List<BeerLocationStock> findByBeerIdOrderByLocation(Long beerId);
+
+    @Transactional(readOnly = true)
+    @Query("select coalesce(sum(s.quantity), 0) from BeerLocationStock s where s.beerId = :beerId")
+    long sumQuantityByBeerId(@Param("beerId") Long beerId);
+
+    @Transactional(readOnly = true)
+    @Query("select s.beerId, sum(s.quantity) from BeerLocationStock s group by s.beerId")
+    List<Object[]> sumQuantityGroupedByBeerId();
+
+    /**
+     * @return the stock held at locations, by beer id; beers without location stock are absent
+     */
+    default Map<Long, Integer> quantitiesByBeerId() {
+        List<Object[]> rows = sumQuantityGroupedByBeerId();
+        Map<Long, Integer> quantities = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            quantities.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return quantities;
+    }
+
+    /**
+     * Adjusts one location with a single conditional update, keeping its quantity within {@code 0..capacity}.
+     *
+     * @return 0 when the location does not exist or the adjustment does not fit
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update BeerLocationStock s set s.quantity = s.quantity + :delta where s.beerId = :beerId"
+            + " and s.location = :location and s.quantity + :delta >= 0 and s.quantity + :delta <= s.capacity")
+    int adjustQuantity(@Param("beerId") Long beerId, @Param("location") String location, @Param("delta") int delta);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update BeerLocationStock s set s.capacity = :newCapacity where s.id = :id"
+            + " and s.capacity = :expectedCapacity and s.quantity <= :newCapacity")
+    int compareAndSetCapacity(@Param("id") Long id,
+                              @Param("expectedCapacity") int expectedCapacity,
+                              @Param("newCapacity") int newCapacity);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("delete from BeerLocationStock s where s.beerId = :beerId")
+    int deleteByBeerId(@Param("beerId") Long beerId);
+}
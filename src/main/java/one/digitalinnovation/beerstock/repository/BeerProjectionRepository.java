@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.repository;
+
+import jakarta.persistence.Tuple;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface BeerProjectionRepository {
+
+    /**
+     * Reads only the columns backing the given fields, for the beers matching every non-null criterion,
+     * ordered by id. The quantity is the aggregate over the unassigned stock and every location.
+     *
+     * @return one tuple per beer, holding one element per field aliased by its property name
+     */
+    @Transactional(readOnly = true)
+    List<Tuple> findFields(Set<BeerField> fields, String name, String brand, BeerType type);
+
+    /**
+     * Passes the columns backing the given fields of every beer to the action, ordered by id, as
+     * {@link #findFields} reads them but streamed from the database instead of collected into a list.
+     */
+    @Transactional(readOnly = true)
+    void forEachFields(Set<BeerField> fields, Consumer<Tuple> action);
+}
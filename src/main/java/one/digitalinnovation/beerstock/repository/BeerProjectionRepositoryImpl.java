@@ -0,0 +1,92 @@
+package one.digitalinnovation.beerstock.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerLocationStock;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BeerProjectionRepositoryImpl implements BeerProjectionRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    public BeerProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Tuple> findFields(Set<BeerField> fields, String name, String brand, BeerType type) {
+        return entityManager.createQuery(fieldsQuery(fields, name, brand, type)).getResultList();
+    }
+
+    @Override
+    public void forEachFields(Set<BeerField> fields, Consumer<Tuple> action) {
+        try (Stream<Tuple> rows = entityManager.createQuery(fieldsQuery(fields, null, null, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(action);
+        }
+    }
+
+    private CriteriaQuery<Tuple> fieldsQuery(Set<BeerField> fields, String name, String brand, BeerType type) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Beer> beer = query.from(Beer.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (BeerField field : fields) {
+            Expression<?> column = field == BeerField.QUANTITY
+                    ? aggregateQuantity(criteriaBuilder, query, beer)
+                    : beer.get(field.getProperty());
+            selections.add(column.alias(field.getProperty()));
+        }
+
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (name != null) {
+            predicates.add(criteriaBuilder.equal(beer.get("name"), name));
+        }
+        if (brand != null) {
+            predicates.add(criteriaBuilder.equal(beer.get("brand"), brand));
+        }
+        if (type != null) {
+            predicates.add(criteriaBuilder.equal(beer.get("type"), type));
+        }
+
+        query.multiselect(selections)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(criteriaBuilder.asc(beer.get("id")));
+        return query;
+    }
+
+    /**
+     * Location stock is only summed for beers with allocated capacity, the others have none.
+     */
+    private static Expression<Integer> aggregateQuantity(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> query,
+                                                        Root<Beer> beer) {
+        Subquery<Integer> locationQuantity = query.subquery(Integer.class);
+        Root<BeerLocationStock> stock = locationQuantity.from(BeerLocationStock.class);
+        locationQuantity.select(criteriaBuilder.coalesce(criteriaBuilder.sum(stock.get("quantity")), 0))
+                .where(criteriaBuilder.equal(stock.get("beerId"), beer.get("id")));
+        Expression<Integer> quantity = beer.get("quantity");
+        return criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.gt(beer.get("allocatedCapacity"), 0), criteriaBuilder.sum(quantity, locationQuantity))
+                .otherwise(quantity);
+    }
+}
@@ -1,11 +1,179 @@
 package one.digitalinnovation.beerstock.repository;
 
 import one.digitalinnovation.beerstock.entity.Beer;
-import org.springframework.data.jpa.repository.JpaRepository;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+/**
+ * Only the operations the application uses are exposed, so that every one of them has to be routed
+ * explicitly by {@link one.digitalinnovation.beerstock.repository.shard.ShardedBeerRepository}. Default
+ * methods combine a write with its change log entry; the sharded repository overrides them as well, so
+ * that both run in one transaction on the shard of the beer.
+ */
+public interface BeerRepository extends Repository<Beer, Long>, BeerProjectionRepository, BeerUpsertRepository {
 
+    @Transactional
+    Beer save(Beer beer);
+
+    @Transactional(readOnly = true)
+    List<Beer> findAll();
+
+    @Transactional(readOnly = true)
+    List<Beer> findAllById(Iterable<Long> ids);
+
+    @Transactional(readOnly = true)
+    boolean existsById(Long id);
+
+    @Transactional(readOnly = true)
+    long count();
+
+    @Transactional(readOnly = true)
     Optional<Beer> findByName(String name);
+
+    @Transactional(readOnly = true)
+    @Query("select b from Beer b where (:brand is null or b.brand = :brand) and (:type is null or b.type = :type)")
+    List<Beer> findByFilter(@Param("brand") String brand, @Param("type") BeerType type);
+
+    /**
+     * Reads in a read-write transaction, so that reads feeding a write go to the primary. Only statements
+     * that update count as a write of the client, see
+     * {@link one.digitalinnovation.beerstock.repository.replica.ReplicaRoutingDataSource}.
+     */
+    @Transactional
+    Optional<Beer> findById(Long id);
+
+    /**
+     * Read from the primary like {@link #findById}.
+     *
+     * @return the unassigned stock plus the stock held at every location of the beer
+     */
+    @Transactional
+    @Query("select b.quantity + (select coalesce(sum(s.quantity), 0) from BeerLocationStock s where s.beerId = b.id)"
+            + " from Beer b where b.id = :id")
+    Optional<Integer> findAggregateQuantity(@Param("id") Long id);
+
+    /**
+     * Inserts the beer and logs its creation in one transaction.
+     */
+    @Transactional
+    default Beer create(Beer beer) {
+        Beer savedBeer = save(beer);
+        recordChange(savedBeer.getId(), false);
+        return savedBeer;
+    }
+
+    /**
+     * Sets the unassigned stock if it still holds the expected quantity, and logs the change in the same
+     * transaction. Also fails when the new quantity no longer fits next to the capacity allocated to
+     * locations.
+     *
+     * @return 0 when nothing was written
+     */
+    @Transactional
+    default int compareAndSetQuantity(Long id, int expectedQuantity, int newQuantity) {
+        int updatedRows = compareAndSetQuantityRow(id, expectedQuantity, newQuantity);
+        if (updatedRows > 0) {
+            recordChange(id, false);
+        }
+        return updatedRows;
+    }
+
+    /**
+     * Deletes with a single statement, without loading the beer first, and logs the deletion in the same
+     * transaction.
+     *
+     * @return 0 when no beer has the given id
+     */
+    @Transactional
+    default int deleteBeerById(Long id) {
+        int deletedRows = deleteRow(id);
+        if (deletedRows > 0) {
+            recordChange(id, true);
+        }
+        return deletedRows;
+    }
+
+    /**
+     * Writes the row only, see {@link #compareAndSetQuantity}.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Beer b set b.quantity = :newQuantity where b.id = :id"
+            + " and b.quantity = :expectedQuantity and :newQuantity + b.allocatedCapacity <= b.max")
+    int compareAndSetQuantityRow(@Param("id") Long id,
+                                 @Param("expectedQuantity") int expectedQuantity,
+                                 @Param("newQuantity") int newQuantity);
+
+    /**
+     * Deletes the row only, see {@link #deleteBeerById}.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("delete from Beer b where b.id = :id")
+    int deleteRow(@Param("id") Long id);
+
+    /**
+     * Appends an entry to the change log, numbered by the database sequence. Runs in the transaction of
+     * the write, so that the entry commits or rolls back with it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into beer_change (change_sequence, beer_id, deleted, created_at)"
+            + " values (next value for beer_change_sequence, :beerId, :deleted, current_timestamp)", nativeQuery = true)
+    int recordChange(@Param("beerId") Long beerId, @Param("deleted") boolean deleted);
+
+    /**
+     * Change log entries after {@code since}, in sequence order. Reads in a read-write transaction, so
+     * that the feed never lags behind the primary, without making the reader a writer, see {@link #findById}.
+     */
+    @Transactional
+    @Query("select new one.digitalinnovation.beerstock.repository.BeerChangeEntry(c.changeSequence, c.beerId,"
+            + " c.deleted, c.createdAt, current_instant) from BeerChange c where c.changeSequence > :since"
+            + " order by c.changeSequence")
+    List<BeerChangeEntry> findChangesAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * Entries of one of the {@link #changeLogCount()} change logs, see {@link #findChangesAfter(long, Limit)}.
+     */
+    default List<BeerChangeEntry> findChangesAfter(int log, long since, Limit limit) {
+        return findChangesAfter(since, limit);
+    }
+
+    /**
+     * Number of change logs, each numbered by a sequence of its own: one per shard when sharded.
+     */
+    default int changeLogCount() {
+        return 1;
+    }
+
+    /**
+     * Deletes the change log entries followed by a newer entry of the same beer that was written more
+     * than {@code settleSeconds} ago, so that only the latest change of every beer is kept. Recent
+     * entries are left alone, so that the gaps left behind never hold back the feed.
+     *
+     * @return the number of entries deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from BeerChange c where exists (select n from BeerChange n where n.beerId = c.beerId"
+            + " and n.changeSequence > c.changeSequence and n.createdAt < current_instant - (:settleSeconds) second)")
+    int compactChanges(@Param("settleSeconds") long settleSeconds);
+
+    /**
+     * Moves capacity between the unassigned stock and the locations, as long as the unassigned stock
+     * still fits in what is left of max.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update Beer b set b.allocatedCapacity = b.allocatedCapacity + :delta where b.id = :id"
+            + " and b.allocatedCapacity + :delta >= 0 and b.quantity + b.allocatedCapacity + :delta <= b.max")
+    int allocateCapacity(@Param("id") Long id, @Param("delta") int delta);
 }
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface BeerUpsertRepository {
+
+    /**
+     * Inserts the beers whose name is new and overwrites brand, max, quantity and type of the others, with
+     * one MERGE keyed on the name that returns the rows it wrote, and logs those rows with one batched
+     * insert, see {@link BeerRepository#recordChange}. The quantity is the aggregate stock, of which the
+     * stock held at locations is kept and the rest left unassigned. An existing beer is left alone when the
+     * quantity is below its location stock or its unassigned part would not fit next to the capacity
+     * allocated to its locations. When a beer of a new name is inserted concurrently, the beers are merged
+     * again one by one, and a beer that conflicts again is reported as a failure. Names must be unique within the list.
+     */
+    @Transactional
+    BeerUpsertResult upsertAll(List<Beer> beers);
+}
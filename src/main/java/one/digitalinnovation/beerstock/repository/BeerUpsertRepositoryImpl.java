@@ -0,0 +1,132 @@
+package one.digitalinnovation.beerstock.repository;
+
+import jakarta.persistence.EntityManager;
+import one.digitalinnovation.beerstock.entity.Beer;
+import org.hibernate.Session;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BeerUpsertRepositoryImpl implements BeerUpsertRepository {
+
+    private static final String LOCATION_STOCK = "(select coalesce(sum(l.quantity), 0) from beer_location_stock l"
+            + " where l.beer_id = b.id)";
+
+    /**
+     * The given quantity is the aggregate stock reads report, so the stock held at locations is subtracted
+     * to get the unassigned stock. Rows the MERGE leaves alone are not part of its final table, so only
+     * written beers are returned.
+     */
+    private static final String MERGE_SQL = "select b.id, b.name, b.quantity + " + LOCATION_STOCK
+            + " from final table (merge into beer b"
+            + " using (values %s) s(name, brand, max, quantity, type)"
+            + " on b.name = s.name"
+            + " when matched and s.quantity >= " + LOCATION_STOCK
+            + " and s.quantity - " + LOCATION_STOCK + " + b.allocated_capacity <= s.max then update set"
+            + " brand = s.brand, max = s.max, quantity = s.quantity - " + LOCATION_STOCK + ", type = s.type"
+            + " when not matched then insert (name, brand, max, quantity, allocated_capacity, type)"
+            + " values (s.name, s.brand, s.max, s.quantity, 0, s.type)) b";
+
+    private static final String VALUES_ROW = "(cast(? as varchar(255)), cast(? as varchar(255)), cast(? as integer),"
+            + " cast(? as integer), cast(? as varchar(255)))";
+
+    private static final String RECORD_CHANGE_SQL = "insert into beer_change (change_sequence, beer_id, deleted, created_at)"
+            + " values (next value for beer_change_sequence, ?, false, current_timestamp)";
+
+    private static final String CAPACITY_FAILURE = "quantity does not cover the stock held at its locations or does not"
+            + " fit next to the capacity allocated to them";
+
+    private static final String CONCURRENT_INSERT_FAILURE = "a beer of this name was created concurrently";
+
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private final EntityManager entityManager;
+
+    public BeerUpsertRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public BeerUpsertResult upsertAll(List<Beer> beers) {
+        if (beers.isEmpty()) {
+            return new BeerUpsertResult(List.of(), Map.of());
+        }
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            List<BeerUpsertResult.UpsertedBeer> upsertedBeers = new ArrayList<>(beers.size());
+            Map<String, String> failures = new LinkedHashMap<>();
+            if (!merge(connection, beers, upsertedBeers)) {
+                for (Beer beer : beers) {
+                    if (!merge(connection, List.of(beer), upsertedBeers)) {
+                        failures.put(beer.getName(), CONCURRENT_INSERT_FAILURE);
+                    }
+                }
+            }
+
+            if (!upsertedBeers.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(RECORD_CHANGE_SQL)) {
+                    for (BeerUpsertResult.UpsertedBeer upsertedBeer : upsertedBeers) {
+                        statement.setLong(1, upsertedBeer.id());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+
+            Set<String> upsertedNames = new HashSet<>();
+            upsertedBeers.forEach(upsertedBeer -> upsertedNames.add(upsertedBeer.name()));
+            for (Beer beer : beers) {
+                if (!upsertedNames.contains(beer.getName())) {
+                    failures.putIfAbsent(beer.getName(), CAPACITY_FAILURE);
+                }
+            }
+            return new BeerUpsertResult(upsertedBeers, failures);
+        });
+    }
+
+    /**
+     * Runs the MERGE for the given beers within a savepoint, adding the rows it wrote.
+     *
+     * @return false, with nothing written, when a beer of one of the new names was inserted concurrently
+     */
+    private static boolean merge(Connection connection, List<Beer> beers,
+                                 List<BeerUpsertResult.UpsertedBeer> upsertedBeers) throws SQLException {
+        String mergeSql = String.format(MERGE_SQL, String.join(", ", Collections.nCopies(beers.size(), VALUES_ROW)));
+        Savepoint savepoint = connection.setSavepoint();
+        List<BeerUpsertResult.UpsertedBeer> mergedBeers = new ArrayList<>(beers.size());
+        try (PreparedStatement statement = connection.prepareStatement(mergeSql)) {
+            int parameterIndex = 1;
+            for (Beer beer : beers) {
+                statement.setString(parameterIndex++, beer.getName());
+                statement.setString(parameterIndex++, beer.getBrand());
+                statement.setInt(parameterIndex++, beer.getMax());
+                statement.setInt(parameterIndex++, beer.getQuantity());
+                statement.setString(parameterIndex++, beer.getType().name());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    mergedBeers.add(new BeerUpsertResult.UpsertedBeer(
+                            resultSet.getLong(1), resultSet.getString(2), resultSet.getInt(3)));
+                }
+            }
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION_STATE.equals(e.getSQLState())) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        upsertedBeers.addAll(mergedBeers);
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link BeerUpsertRepository#upsertAll}: the beers written, and why every other beer was not.
+ *
+ * @param failures reason per name of a beer left alone
+ */
+public record BeerUpsertResult(List<UpsertedBeer> upsertedBeers, Map<String, String> failures) {
+
+    /**
+     * @param quantity the unassigned stock plus the stock held at every location of the beer
+     */
+    public record UpsertedBeer(Long id, String name, int quantity) {
+    }
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.repository.replica;
+
+/**
+ * Holds the id of the client issuing the current request, used to give that client read-your-writes.
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    public static String currentClient() {
+        return CURRENT_CLIENT.get();
+    }
+
+    public static void setCurrentClient(String clientId) {
+        CURRENT_CLIENT.set(clientId);
+    }
+
+    public static void clear() {
+        CURRENT_CLIENT.remove();
+    }
+}
@@ -0,0 +1,47 @@
+package one.digitalinnovation.beerstock.repository.replica;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently, so their reads can stay on the primary until the replica has
+ * had time to catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String clientId) {
+        if (windowNanos <= 0 || clientId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWriteByClient.put(clientId, now);
+        if (lastWriteByClient.size() > PURGE_THRESHOLD) {
+            lastWriteByClient.values().removeIf(lastWrite -> now - lastWrite > windowNanos);
+        }
+    }
+
+    public boolean wroteRecently(String clientId) {
+        if (windowNanos <= 0 || clientId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByClient.get(clientId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite > windowNanos) {
+            lastWriteByClient.remove(clientId, lastWrite);
+            return false;
+        }
+        return true;
+    }
+}
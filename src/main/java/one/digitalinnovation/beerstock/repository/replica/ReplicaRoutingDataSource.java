@@ -0,0 +1,40 @@
+package one.digitalinnovation.beerstock.repository.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the connection is only
+ * fetched once the transaction's read-only flag is known. A client counts as a writer once a statement
+ * has updated the primary (see {@link WriteRecordingDataSource}), not for every read-write transaction,
+ * so reads that need the primary, such as the change feed, do not pin their client to it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        DataSource recordingPrimary = new WriteRecordingDataSource(primary, readYourWritesTracker);
+        setTargetDataSources(Map.of(Route.PRIMARY, recordingPrimary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(recordingPrimary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readYourWritesTracker.wroteRecently(ClientContext.currentClient()) ? Route.PRIMARY : Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -0,0 +1,72 @@
+package one.digitalinnovation.beerstock.repository.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Hands out connections of the primary that record a write of the current client with the
+ * {@link ReadYourWritesTracker} once one of their statements has run an update, so that a transaction
+ * which only reads from the primary does not count as a write.
+ */
+public class WriteRecordingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> UPDATE_METHODS = Set.of("executeUpdate", "executeLargeUpdate", "executeBatch",
+            "executeLargeBatch", "execute");
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public WriteRecordingDataSource(DataSource targetDataSource, ReadYourWritesTracker readYourWritesTracker) {
+        super(targetDataSource);
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordWrites(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordWrites(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection recordWrites(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement ? recordWrites(statement) : result;
+                });
+    }
+
+    private Statement recordWrites(Statement statement) {
+        Class<?> statementInterface = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementInterface},
+                (proxy, method, args) -> {
+                    Object result = invoke(statement, method, args);
+                    if (UPDATE_METHODS.contains(method.getName())) {
+                        readYourWritesTracker.recordWrite(ClientContext.currentClient());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
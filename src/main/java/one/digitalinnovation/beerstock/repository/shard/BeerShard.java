@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstock.repository.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Getter;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+
+/**
+ * One shard of the beer catalog: its own entity manager factory, repository and transaction boundary.
+ * Shards share no transaction manager, so every operation commits on its own.
+ */
+public class BeerShard implements AutoCloseable {
+
+    @Getter
+    private final int index;
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public BeerShard(int index, BeerRepository beerRepository, TransactionTemplate transactionTemplate,
+                     EntityManagerFactory entityManagerFactory) {
+        this.index = index;
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Runs the operation in a new transaction on this shard, committed before returning.
+     */
+    public <T> T execute(Function<BeerRepository, T> operation) {
+        return transactionTemplate.execute(status -> operation.apply(beerRepository));
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+}
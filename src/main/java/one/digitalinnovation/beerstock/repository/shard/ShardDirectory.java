@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstock.repository.shard;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps beer names to the shard holding them. Entries are a routing hint only: a miss or a stale entry
+ * makes the caller fall back to asking every shard.
+ */
+public class ShardDirectory {
+
+    private final Map<String, Integer> shardByName = new ConcurrentHashMap<>();
+
+    public Optional<Integer> locate(String name) {
+        return Optional.ofNullable(shardByName.get(name));
+    }
+
+    public void register(String name, int shardIndex) {
+        shardByName.put(name, shardIndex);
+    }
+
+    public void evict(String name) {
+        shardByName.remove(name);
+    }
+
+    public int size() {
+        return shardByName.size();
+    }
+}
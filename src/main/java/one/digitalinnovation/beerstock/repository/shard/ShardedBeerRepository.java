@@ -0,0 +1,325 @@
+package one.digitalinnovation.beerstock.repository.shard;
+
+import jakarta.persistence.Tuple;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerChangeEntry;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerUpsertResult;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link BeerRepository} that spreads the catalog over several shards. Every operation is routed by hand,
+ * so an operation added to {@link BeerRepository} does not compile until it is routed here.
+ *
+ * <ul>
+ *     <li>Calls keyed by id (or by a beer that already has one) go to the shard owning that id range.</li>
+ *     <li>New beers are placed by the hash of their name; the identity column of each shard only hands
+ *     out ids inside its own range, so the generated id routes back to the same shard.</li>
+ *     <li>{@code findByName} goes through the {@link ShardDirectory}, asking every shard on a miss.</li>
+ *     <li>{@code upsertAll} sends every beer to the shard its name hashes to, where a beer of that name
+ *     was placed if it exists, and reports the beers of a failed shard rather than failing the call.</li>
+ *     <li>Listings, counts and filtered queries are scattered to every shard in parallel and the results
+ *     gathered in shard order; {@code forEachFields} streams one shard after the other instead.</li>
+ *     <li>Every shard keeps a change log of its own, read one shard at a time.</li>
+ * </ul>
+ *
+ * Each call runs in a transaction of its own on the shard it is routed to, committed before the call
+ * returns (see {@link BeerShard}): a surrounding service transaction does not extend to the shards. A
+ * service write must therefore be a single call routed to a single shard; calls scattered over several
+ * shards are not atomic across them.
+ */
+public class ShardedBeerRepository implements BeerRepository {
+
+    private final List<BeerShard> shards;
+    private final ShardDirectory shardDirectory;
+    private final long idRangeSize;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedBeerRepository(List<BeerShard> shards, ShardDirectory shardDirectory, long idRangeSize,
+                                 ExecutorService scatterExecutor) {
+        this.shards = List.copyOf(shards);
+        this.shardDirectory = shardDirectory;
+        this.idRangeSize = idRangeSize;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    public int shardForId(Long id) {
+        return (int) Math.floorMod((id - 1) / idRangeSize, (long) shards.size());
+    }
+
+    public int shardForNewBeer(String name) {
+        return Math.floorMod(name.hashCode(), shards.size());
+    }
+
+    @Override
+    public Beer save(Beer beer) {
+        int shardIndex = beer.getId() != null ? shardForId(beer.getId()) : shardForNewBeer(beer.getName());
+        Beer savedBeer = shards.get(shardIndex).execute(repository -> repository.save(beer));
+        shardDirectory.register(savedBeer.getName(), shardIndex);
+        return savedBeer;
+    }
+
+    @Override
+    public Optional<Beer> findById(Long id) {
+        return onShardOf(id, repository -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return onShardOf(id, repository -> repository.existsById(id));
+    }
+
+    @Override
+    public List<Beer> findAllById(Iterable<Long> ids) {
+        List<List<Long>> idsByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        ids.forEach(id -> idsByShard.get(shardForId(id)).add(id));
+
+        List<Future<List<Beer>>> partialResults = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            BeerShard shard = shards.get(i);
+            List<Long> shardIds = idsByShard.get(i);
+            partialResults.add(shardIds.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : scatterExecutor.submit(() -> shard.execute(repository -> repository.findAllById(shardIds))));
+        }
+        return gatherLists(partialResults);
+    }
+
+    @Override
+    public List<Beer> findAll() {
+        return gatherLists(scatter(BeerRepository::findAll));
+    }
+
+    @Override
+    public long count() {
+        return sum(scatter(BeerRepository::count));
+    }
+
+    @Override
+    public Optional<Beer> findByName(String name) {
+        Optional<Integer> locatedShard = shardDirectory.locate(name);
+        if (locatedShard.isPresent()) {
+            Optional<Beer> foundBeer = shards.get(locatedShard.get()).execute(repository -> repository.findByName(name));
+            if (foundBeer.isPresent()) {
+                return foundBeer;
+            }
+            shardDirectory.evict(name);
+        }
+
+        List<Future<Optional<Beer>>> lookups = scatter(repository -> repository.findByName(name));
+        for (int i = 0; i < lookups.size(); i++) {
+            Optional<Beer> foundBeer = await(lookups.get(i));
+            if (foundBeer.isPresent()) {
+                shardDirectory.register(name, shards.get(i).getIndex());
+                return foundBeer;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Beer> findByFilter(String brand, BeerType type) {
+        return gatherLists(scatter(repository -> repository.findByFilter(brand, type)));
+    }
+
+    @Override
+    public List<Tuple> findFields(Set<BeerField> fields, String name, String brand, BeerType type) {
+        return gatherLists(scatter(repository -> repository.findFields(fields, name, brand, type)));
+    }
+
+    /**
+     * The action only ever runs on the calling thread.
+     */
+    @Override
+    public void forEachFields(Set<BeerField> fields, Consumer<Tuple> action) {
+        for (BeerShard shard : shards) {
+            shard.execute(repository -> {
+                repository.forEachFields(fields, action);
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public Optional<Integer> findAggregateQuantity(Long id) {
+        return onShardOf(id, repository -> repository.findAggregateQuantity(id));
+    }
+
+    @Override
+    public Beer create(Beer beer) {
+        int shardIndex = shardForNewBeer(beer.getName());
+        Beer savedBeer = shards.get(shardIndex).execute(repository -> repository.create(beer));
+        shardDirectory.register(savedBeer.getName(), shardIndex);
+        return savedBeer;
+    }
+
+    @Override
+    public int compareAndSetQuantity(Long id, int expectedQuantity, int newQuantity) {
+        return onShardOf(id, repository -> repository.compareAndSetQuantity(id, expectedQuantity, newQuantity));
+    }
+
+    @Override
+    public int deleteBeerById(Long id) {
+        return onShardOf(id, repository -> repository.deleteBeerById(id));
+    }
+
+    @Override
+    public int compareAndSetQuantityRow(Long id, int expectedQuantity, int newQuantity) {
+        return onShardOf(id, repository -> repository.compareAndSetQuantityRow(id, expectedQuantity, newQuantity));
+    }
+
+    @Override
+    public int deleteRow(Long id) {
+        return onShardOf(id, repository -> repository.deleteRow(id));
+    }
+
+    @Override
+    public int recordChange(Long beerId, boolean deleted) {
+        return onShardOf(beerId, repository -> repository.recordChange(beerId, deleted));
+    }
+
+    /**
+     * Reads the change log of the first shard; positions in the logs of different shards cannot be
+     * compared, see {@link #findChangesAfter(int, long, Limit)}.
+     */
+    @Override
+    public List<BeerChangeEntry> findChangesAfter(long since, Limit limit) {
+        return findChangesAfter(0, since, limit);
+    }
+
+    /**
+     * Every shard numbers the entries of its change log with a sequence of its own.
+     */
+    @Override
+    public List<BeerChangeEntry> findChangesAfter(int log, long since, Limit limit) {
+        return shards.get(log).execute(repository -> repository.findChangesAfter(since, limit));
+    }
+
+    @Override
+    public int changeLogCount() {
+        return shards.size();
+    }
+
+    @Override
+    public int compactChanges(long settleSeconds) {
+        return (int) sum(scatter(repository -> (long) repository.compactChanges(settleSeconds)));
+    }
+
+    @Override
+    public int allocateCapacity(Long id, int delta) {
+        return onShardOf(id, repository -> repository.allocateCapacity(id, delta));
+    }
+
+    /**
+     * Every shard writes its beers in a transaction of its own. When a shard fails, the beers of the other
+     * shards stay written, and the beers of the failed shard are reported as failures.
+     */
+    @Override
+    public BeerUpsertResult upsertAll(List<Beer> beers) {
+        List<List<Beer>> beersByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            beersByShard.add(new ArrayList<>());
+        }
+        beers.forEach(beer -> beersByShard.get(shardForNewBeer(beer.getName())).add(beer));
+
+        List<Future<BeerUpsertResult>> partialResults = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            BeerShard shard = shards.get(i);
+            List<Beer> shardBeers = beersByShard.get(i);
+            partialResults.add(shardBeers.isEmpty()
+                    ? CompletableFuture.completedFuture(new BeerUpsertResult(List.of(), Map.of()))
+                    : scatterExecutor.submit(() -> shard.execute(repository -> repository.upsertAll(shardBeers))));
+        }
+
+        List<BeerUpsertResult.UpsertedBeer> upsertedBeers = new ArrayList<>(beers.size());
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            BeerUpsertResult shardResult;
+            try {
+                shardResult = await(partialResults.get(i));
+            } catch (RuntimeException e) {
+                String failure = "not written, shard " + shards.get(i).getIndex() + " failed: " + e.getMessage();
+                beersByShard.get(i).forEach(beer -> failures.put(beer.getName(), failure));
+                continue;
+            }
+            for (BeerUpsertResult.UpsertedBeer upsertedBeer : shardResult.upsertedBeers()) {
+                shardDirectory.register(upsertedBeer.name(), shards.get(i).getIndex());
+            }
+            upsertedBeers.addAll(shardResult.upsertedBeers());
+            failures.putAll(shardResult.failures());
+        }
+        return new BeerUpsertResult(upsertedBeers, failures);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedBeerRepository" + shards.stream().map(BeerShard::getIndex).toList();
+    }
+
+    private <T> T onShardOf(Long id, Function<BeerRepository, T> operation) {
+        return shards.get(shardForId(id)).execute(operation);
+    }
+
+    private <T> List<Future<T>> scatter(Function<BeerRepository, T> operation) {
+        List<Future<T>> partialResults = new ArrayList<>(shards.size());
+        for (BeerShard shard : shards) {
+            partialResults.add(scatterExecutor.submit(() -> shard.execute(operation)));
+        }
+        return partialResults;
+    }
+
+    private static <T> List<T> gatherLists(List<Future<List<T>>> partialResults) {
+        List<T> merged = new ArrayList<>();
+        for (Future<List<T>> partialResult : partialResults) {
+            merged.addAll(await(partialResult));
+        }
+        return merged;
+    }
+
+    private static long sum(List<Future<Long>> partialResults) {
+        long total = 0;
+        for (Future<Long> partialResult : partialResults) {
+            total += await(partialResult);
+        }
+        return total;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard results", e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
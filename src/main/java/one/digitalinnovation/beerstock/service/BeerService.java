@@ -1,57 +1,607 @@
 package one.digitalinnovation.beerstock.service;
 
+import jakarta.persistence.Tuple;
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.catalog.CatalogSnapshot;
+import one.digitalinnovation.beerstock.catalog.ColumnarCatalog;
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import one.digitalinnovation.beerstock.config.LocationStockProperties;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLocationsDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.LocationStockDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.dto.StockHistoryDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerLocationStock;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockDomainException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.StockLocationNotFoundException;
+import one.digitalinnovation.beerstock.exception.StockLocationsDisabledException;
+import one.digitalinnovation.beerstock.history.StockHistory;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerChangeEntry;
+import one.digitalinnovation.beerstock.repository.BeerLocationStockRepository;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerUpsertResult;
+import one.digitalinnovation.beerstock.repository.replica.ClientContext;
+import one.digitalinnovation.beerstock.repository.replica.ReadYourWritesTracker;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    static final int MAX_CHANGES = 1000;
+    private static final Pattern CHANGE_TOKEN = Pattern.compile("\\d{1,18}(\\.\\d{1,18})*");
+
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final ColumnarCatalog columnarCatalog;
+    private final BeerLocationStockRepository beerLocationStockRepository;
+    private final LocationStockProperties locationStockProperties;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
 
+    private final SingleFlight<String, BeerDTO> findByNameFlight = new SingleFlight<>(beerDTO -> beerDTO.toBuilder().build());
+    private final SingleFlight<String, List<BeerDTO>> listAllFlight = new SingleFlight<>(beerDTOs -> beerDTOs.stream()
+            .map(beerDTO -> beerDTO.toBuilder().build())
+            .toList());
+    private final StockAdjustmentCombiner stockAdjustmentCombiner = new StockAdjustmentCombiner();
+    private final StockHistory stockHistory = new StockHistory();
+    private final RestockPlanner restockPlanner = new RestockPlanner();
+
+    /**
+     * A single insert; a beer with the same name is detected by the unique constraint on the name rather
+     * than looked up first.
+     */
+    @Transactional(rollbackFor = BeerStockDomainException.class)
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
+        Beer savedBeer;
+        try {
+            savedBeer = beerRepository.create(beer);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueConstraintViolation(e)) {
+                throw new BeerAlreadyRegisteredException(beerDTO.getName());
+            }
+            throw e;
+        }
+        long now = System.currentTimeMillis();
+        afterCommit(() -> {
+            stockHistory.record(savedBeer.getId(), now, savedBeer.getQuantity());
+            columnarCatalog.upsert(savedBeer);
+        });
         return beerMapper.toDTO(savedBeer);
     }
 
+    /**
+     * Creates the beers whose name is new and overwrites the others, with one MERGE keyed on the name that
+     * returns the written rows instead of a lookup and a write per beer. The quantity is the aggregate stock,
+     * as reads report it. A beer whose quantity is below the stock held at its locations, or would not fit
+     * next to the capacity allocated to them, is reported as a failure and left unchanged, as is a beer
+     * whose name keeps being created concurrently. When sharded, every shard commits its beers on its own,
+     * and the beers of a shard that fails are reported as failures while the others stay written.
+     */
+    @Transactional
+    public BulkOperationResultDTO upsert(List<BeerDTO> beerDTOs) {
+        List<Beer> beers = beerDTOs.stream()
+                .map(beerMapper::toModel)
+                .toList();
+        BeerUpsertResult result = beerRepository.upsertAll(beers);
+
+        Map<String, BeerUpsertResult.UpsertedBeer> upsertedByName = result.upsertedBeers().stream()
+                .collect(Collectors.toMap(BeerUpsertResult.UpsertedBeer::name, Function.identity()));
+        List<Beer> upsertedBeers = new ArrayList<>(upsertedByName.size());
+        List<String> failures = new ArrayList<>();
+        for (Beer beer : beers) {
+            BeerUpsertResult.UpsertedBeer upsertedBeer = upsertedByName.get(beer.getName());
+            if (upsertedBeer == null) {
+                failures.add(beer.getName() + ": " + result.failures().get(beer.getName()));
+                continue;
+            }
+            beer.setId(upsertedBeer.id());
+            beer.setQuantity(upsertedBeer.quantity());
+            upsertedBeers.add(beer);
+        }
+
+        long now = System.currentTimeMillis();
+        afterCommit(() -> {
+            for (Beer beer : upsertedBeers) {
+                stockHistory.record(beer.getId(), now, beer.getQuantity());
+            }
+            columnarCatalog.upsertAll(upsertedBeers);
+        });
+        return BulkOperationResultDTO.builder()
+                .succeeded(upsertedBeers.size())
+                .failed(failures.size())
+                .failures(failures)
+                .build();
+    }
+
+    /**
+     * Concurrent lookups of the same name share one query, and every caller gets its own copy of the mapped
+     * result; a client that wrote recently runs a query of its own. Runs outside of a service transaction
+     * so that waiting callers hold no connection; the repository query is read-only.
+     */
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        return shared(findByNameFlight, name, () -> {
+            Beer foundBeer = beerRepository.findByName(name)
+                    .orElseThrow(() -> new BeerNotFoundException(name));
+            return toAggregateDTO(foundBeer);
+        });
     }
 
+    /**
+     * Sparse variant of {@link #findByName(String)}: only the columns of the given fields are read, and
+     * only those fields are set. Null fields means every field.
+     */
+    public BeerDTO findByName(String name, Set<BeerField> fields) throws BeerNotFoundException {
+        if (fields == null) {
+            return findByName(name);
+        }
+        List<Tuple> rows = beerRepository.findFields(fields, name, null, null);
+        if (rows.isEmpty()) {
+            throw new BeerNotFoundException(name);
+        }
+        return toSparseDTO(rows.get(0), fields);
+    }
+
+    /**
+     * Variant of {@link #findByName(String, Set)} that hands the id of the beer to {@code onFound}, and only
+     * returns it when the selection asked for it.
+     */
+    public BeerDTO findByName(String name, BeerField.Selection selection, LongConsumer onFound)
+            throws BeerNotFoundException {
+        List<Tuple> rows = beerRepository.findFields(selection.fields(), name, null, null);
+        if (rows.isEmpty()) {
+            throw new BeerNotFoundException(name);
+        }
+        Tuple row = rows.get(0);
+        onFound.accept(((Number) row.get(BeerField.ID.getProperty())).longValue());
+        BeerDTO beerDTO = new BeerDTO();
+        for (BeerField field : selection.fields()) {
+            if (field != BeerField.ID || selection.idRequested()) {
+                field.set(beerDTO, row.get(field.getProperty()));
+            }
+        }
+        return beerDTO;
+    }
+
+    /**
+     * Served from the columnar catalog when it is enabled. Otherwise concurrent listings share one query,
+     * see {@link #findByName(String)}.
+     */
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
-                .stream()
-                .map(beerMapper::toDTO)
-                .collect(Collectors.toList());
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.snapshot().toDTOs();
+        }
+        return shared(listAllFlight, "all", () -> toAggregateDTOs(beerRepository.findAll()));
+    }
+
+    /**
+     * Sparse variant of {@link #listAll()}, see {@link #findByName(String, Set)}.
+     */
+    public List<BeerDTO> listAll(Set<BeerField> fields) {
+        if (fields == null) {
+            return listAll();
+        }
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.snapshot().toDTOs(fields);
+        }
+        return shared(listAllFlight, "fields=" + fields,
+                () -> toSparseDTOs(beerRepository.findFields(fields, null, null, null), fields));
+    }
+
+    /**
+     * Beers of the given brand and/or type; a null criterion matches every beer.
+     */
+    public List<BeerDTO> search(String brand, BeerType type) {
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.snapshot().filter(brand, type);
+        }
+        return toAggregateDTOs(beerRepository.findByFilter(brand, type));
+    }
+
+    /**
+     * Sparse variant of {@link #search(String, BeerType)}, see {@link #findByName(String, Set)}.
+     */
+    public List<BeerDTO> search(String brand, BeerType type, Set<BeerField> fields) {
+        if (fields == null) {
+            return search(brand, type);
+        }
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.snapshot().filter(brand, type, fields);
+        }
+        return toSparseDTOs(beerRepository.findFields(fields, null, brand, type), fields);
+    }
+
+    public RestockPlanDTO restockPlan(double targetFillRatio, int maxQuantityPerOrder) throws InvalidParameterException {
+        validateRestockParameters(targetFillRatio, maxQuantityPerOrder);
+        CatalogSnapshot snapshot = columnarCatalog.snapshot();
+        if (snapshot != null) {
+            return restockPlanner.plan(snapshot, targetFillRatio, maxQuantityPerOrder);
+        }
+        Set<BeerField> fields = EnumSet.allOf(BeerField.class);
+        return restockPlanner.plan(
+                beers -> beerRepository.forEachFields(fields, row -> beers.accept(toSparseDTO(row, fields))),
+                targetFillRatio, maxQuantityPerOrder);
+    }
+
+    static void validateRestockParameters(double targetFillRatio, int maxQuantityPerOrder) throws InvalidParameterException {
+        if (!(targetFillRatio > 0 && targetFillRatio <= 1)) {
+            throw new InvalidParameterException("targetFillRatio", "must be greater than 0 and at most 1");
+        }
+        if (maxQuantityPerOrder < 1) {
+            throw new InvalidParameterException("maxQuantityPerOrder", "must be at least 1");
+        }
     }
 
+    /**
+     * Deletes the beer with a single statement and tells a missing beer from the affected-row count. Its
+     * locations go first, in the same order as stock adjustments at a location lock their rows.
+     */
+    @Transactional(rollbackFor = BeerStockDomainException.class)
     public void deleteById(Long id) throws BeerNotFoundException {
+        if (locationStockProperties.isEnabled()) {
+            beerLocationStockRepository.deleteByBeerId(id);
+        }
+        if (beerRepository.deleteBeerById(id) == 0) {
+            throw new BeerNotFoundException(id);
+        }
+        afterCommit(() -> {
+            stockHistory.remove(id);
+            columnarCatalog.remove(id);
+        });
+    }
+
+    /**
+     * Beers created, modified or deleted after the given token, oldest change first and at most
+     * {@code limit} changes, read from the change log of every shard in turn. A missing sequence may
+     * belong to a write still in flight, so a log is only read past it once the entry following it has
+     * settled, see {@link ChangeFeedProperties#getSettleTime()}: the returned token never steps over a
+     * write that commits late. A beer changed several times is reported once, in its current state.
+     */
+    @Transactional
+    public BeerChangesDTO changes(String since, int limit) throws InvalidParameterException {
+        if (limit < 1 || limit > MAX_CHANGES) {
+            throw new InvalidParameterException("limit", "must be between 1 and " + MAX_CHANGES);
+        }
+        int logCount = beerRepository.changeLogCount();
+        long[] positions = parseChangeToken(since, logCount);
+        List<List<BeerChangeEntry>> readableEntries = new ArrayList<>(logCount);
+        boolean hasMore = false;
+        for (int log = 0; log < logCount; log++) {
+            List<BeerChangeEntry> entries = beerRepository.findChangesAfter(log, positions[log], Limit.of(limit));
+            List<BeerChangeEntry> readable = readableEntries(entries, positions[log]);
+            hasMore |= readable.size() == limit;
+            readableEntries.add(readable);
+        }
+
+        // Beer id to whether its latest change is a deletion, in the order of the latest changes
+        Map<Long, Boolean> latestChanges = new LinkedHashMap<>();
+        int[] taken = new int[logCount];
+        int takenTotal = 0;
+        boolean progressed = true;
+        while (takenTotal < limit && progressed) {
+            progressed = false;
+            for (int log = 0; log < logCount && takenTotal < limit; log++) {
+                List<BeerChangeEntry> readable = readableEntries.get(log);
+                if (taken[log] < readable.size()) {
+                    BeerChangeEntry entry = readable.get(taken[log]++);
+                    latestChanges.remove(entry.beerId());
+                    latestChanges.put(entry.beerId(), entry.deleted());
+                    positions[log] = entry.changeSequence();
+                    takenTotal++;
+                    progressed = true;
+                }
+            }
+        }
+        for (int log = 0; log < logCount; log++) {
+            hasMore |= taken[log] < readableEntries.get(log).size();
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        latestChanges.forEach((beerId, deleted) -> (deleted ? deletedIds : changedIds).add(beerId));
+        // A beer deleted since its entry was read is missing here and reported as deleted on the next call
+        Map<Long, Beer> changedBeers = beerRepository.findAllById(changedIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        List<Beer> beers = changedIds.stream()
+                .map(changedBeers::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return BeerChangesDTO.builder()
+                .token(Arrays.stream(positions).mapToObj(Long::toString).collect(Collectors.joining(".")))
+                .hasMore(hasMore)
+                .beers(toAggregateDTOs(beers))
+                .deletedIds(deletedIds)
+                .build();
+    }
+
+    /**
+     * Deletes the change log entries superseded by a settled newer change of the same beer. Runs on a
+     * timer, see {@link ChangeFeedProperties#getCompactionInterval()}.
+     */
+    public void compactChanges() {
+        beerRepository.compactChanges(changeFeedProperties.getSettleTime().toSeconds());
+    }
+
+    /**
+     * The entries up to the first missing sequence whose next entry has not settled yet.
+     */
+    private List<BeerChangeEntry> readableEntries(List<BeerChangeEntry> entries, long since) {
+        long expectedSequence = since + 1;
+        for (int i = 0; i < entries.size(); i++) {
+            BeerChangeEntry entry = entries.get(i);
+            if (entry.changeSequence() != expectedSequence && !entry.isSettled(changeFeedProperties.getSettleTime())) {
+                return entries.subList(0, i);
+            }
+            expectedSequence = entry.changeSequence() + 1;
+        }
+        return entries;
+    }
+
+    /**
+     * A token holds the position reached in every change log, separated by dots; {@code 0} starts every
+     * log from the beginning.
+     */
+    private static long[] parseChangeToken(String token, int logCount) throws InvalidParameterException {
+        long[] positions = new long[logCount];
+        if (token == null || token.equals("0")) {
+            return positions;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (!CHANGE_TOKEN.matcher(token).matches() || parts.length != logCount) {
+            throw new InvalidParameterException("since", "must be 0 or a token returned by a previous call");
+        }
+        for (int i = 0; i < logCount; i++) {
+            positions[i] = Long.parseLong(parts[i]);
+        }
+        return positions;
+    }
+
+    /**
+     * Quantity history recorded by this instance since startup, defaulting to the last 24 hours.
+     */
+    public StockHistoryDTO history(Long id, Instant from, Instant to, HistoryResolution resolution) throws BeerNotFoundException {
+        if (!beerRepository.existsById(id)) {
+            throw new BeerNotFoundException(id);
+        }
+        Instant rangeEnd = to != null ? to : Instant.now();
+        Instant rangeStart = from != null ? from : rangeEnd.minus(Duration.ofDays(1));
+        return StockHistoryDTO.builder()
+                .beerId(id)
+                .resolution(resolution)
+                .points(stockHistory.query(id, rangeStart.toEpochMilli(), rangeEnd.toEpochMilli(), resolution))
+                .build();
+    }
+
+    /**
+     * Stock per location with the aggregate over the unassigned stock and every location.
+     */
+    @Transactional(readOnly = true)
+    public BeerLocationsDTO locations(Long id) throws BeerNotFoundException {
+        Beer beer = verifyIfExists(id);
+        List<LocationStockDTO> locations = beerLocationStockRepository.findByBeerIdOrderByLocation(id)
+                .stream()
+                .map(BeerService::toLocationStockDTO)
+                .toList();
+        int locationQuantity = locations.stream().mapToInt(LocationStockDTO::getQuantity).sum();
+        return BeerLocationsDTO.builder()
+                .beerId(id)
+                .max(beer.getMax())
+                .quantity(beer.getQuantity() + locationQuantity)
+                .unassignedQuantity(beer.getQuantity())
+                .unassignedCapacity(beer.getMax() - beer.getAllocatedCapacity())
+                .locations(locations)
+                .build();
+    }
+
+    /**
+     * Sets the share of max held by a location, creating the location when it does not exist yet. The
+     * capacity comes from, or goes back to, the unassigned stock, so it can only grow as far as the
+     * unassigned stock leaves room and only shrink down to the quantity held at the location. Locations
+     * are only ever created here, so with locations disabled every other location operation finds none.
+     * A location created concurrently by another call is updated instead; locations only go with their
+     * beer, so one missing right after its creation means the beer was deleted concurrently.
+     */
+    @Transactional(rollbackFor = BeerStockDomainException.class)
+    public LocationStockDTO setLocationCapacity(Long id, String location, int capacity)
+            throws BeerNotFoundException, BeerStockExceededException, StockLocationsDisabledException {
+        if (!locationStockProperties.isEnabled()) {
+            throw new StockLocationsDisabledException();
+        }
         verifyIfExists(id);
-        beerRepository.deleteById(id);
+        beerLocationStockRepository.createIfAbsent(id, location);
+        BeerLocationStock stock = beerLocationStockRepository.findByBeerIdAndLocation(id, location)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        int previousCapacity = stock.getCapacity();
+        if (beerLocationStockRepository.compareAndSetCapacity(stock.getId(), previousCapacity, capacity) == 0) {
+            throw new BeerStockExceededException(id, capacity);
+        }
+        int delta = capacity - previousCapacity;
+        if (delta != 0 && beerRepository.allocateCapacity(id, delta) == 0) {
+            throw new BeerStockExceededException(id, delta);
+        }
+        return new LocationStockDTO(location, stock.getQuantity(), capacity);
+    }
+
+    @Transactional(rollbackFor = BeerStockDomainException.class)
+    public LocationStockDTO incrementAtLocation(Long id, String location, int quantityToIncrement)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        return adjustAtLocation(id, location, quantityToIncrement);
+    }
+
+    @Transactional(rollbackFor = BeerStockDomainException.class)
+    public LocationStockDTO decrementAtLocation(Long id, String location, int quantityToDecrement)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        return adjustAtLocation(id, location, -quantityToDecrement);
+    }
+
+    /**
+     * Moves stock between two locations of a beer; the aggregate does not change. Rows are updated in
+     * location order, so that opposite transfers running at the same time cannot deadlock.
+     */
+    @Transactional(rollbackFor = BeerStockDomainException.class)
+    public BeerLocationsDTO transfer(Long id, String from, String to, int quantity)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException,
+            InvalidParameterException {
+        if (from.equals(to)) {
+            throw new InvalidParameterException("to", "must differ from the source location");
+        }
+        if (from.compareTo(to) < 0) {
+            adjustLocationQuantity(id, from, -quantity);
+            adjustLocationQuantity(id, to, quantity);
+        } else {
+            adjustLocationQuantity(id, to, quantity);
+            adjustLocationQuantity(id, from, -quantity);
+        }
+        return locations(id);
+    }
+
+    private LocationStockDTO adjustAtLocation(Long id, String location, int delta)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        adjustLocationQuantity(id, location, delta);
+        // Logged without touching the beer row, which stock moving at a location leaves alone
+        beerRepository.recordChange(id, false);
+        BeerLocationStock stock = beerLocationStockRepository.findByBeerIdAndLocation(id, location)
+                .orElseThrow(() -> new StockLocationNotFoundException(id, location));
+        Optional<Integer> aggregateQuantity = beerRepository.findAggregateQuantity(id);
+        long now = System.currentTimeMillis();
+        afterCommit(() -> {
+            aggregateQuantity.ifPresent(quantity -> stockHistory.record(id, now, quantity));
+            columnarCatalog.adjustQuantity(id, delta);
+        });
+        return toLocationStockDTO(stock);
+    }
+
+    /**
+     * A single conditional update of the location row; only when it matches nothing is the cause looked up.
+     */
+    private void adjustLocationQuantity(Long id, String location, int delta)
+            throws BeerNotFoundException, StockLocationNotFoundException, BeerStockExceededException {
+        if (beerLocationStockRepository.adjustQuantity(id, location, delta) > 0) {
+            return;
+        }
+        if (beerLocationStockRepository.findByBeerIdAndLocation(id, location).isPresent()) {
+            throw new BeerStockExceededException(id, Math.abs(delta));
+        }
+        if (!beerRepository.existsById(id)) {
+            throw new BeerNotFoundException(id);
+        }
+        throw new StockLocationNotFoundException(id, location);
+    }
+
+    private static BeerDTO toSparseDTO(Tuple row, Set<BeerField> fields) {
+        BeerDTO beerDTO = new BeerDTO();
+        for (BeerField field : fields) {
+            field.set(beerDTO, row.get(field.getProperty()));
+        }
+        return beerDTO;
+    }
+
+    private static List<BeerDTO> toSparseDTOs(List<Tuple> rows, Set<BeerField> fields) {
+        return rows.stream()
+                .map(row -> toSparseDTO(row, fields))
+                .toList();
+    }
+
+    private static LocationStockDTO toLocationStockDTO(BeerLocationStock stock) {
+        return new LocationStockDTO(stock.getLocation(), stock.getQuantity(), stock.getCapacity());
     }
 
-    private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-        Optional<Beer> optSavedBeer = beerRepository.findByName(name);
-        if (optSavedBeer.isPresent()) {
-            throw new BeerAlreadyRegisteredException(name);
+    /**
+     * Location stock only exists for beers with allocated capacity, so other beers need no extra query.
+     */
+    private BeerDTO toAggregateDTO(Beer beer) {
+        BeerDTO beerDTO = beerMapper.toDTO(beer);
+        if (beer.getAllocatedCapacity() > 0) {
+            beerDTO.setQuantity(beer.getQuantity() + (int) beerLocationStockRepository.sumQuantityByBeerId(beer.getId()));
         }
+        return beerDTO;
+    }
+
+    private List<BeerDTO> toAggregateDTOs(List<Beer> beers) {
+        Map<Long, Integer> locationQuantities = beers.stream().anyMatch(beer -> beer.getAllocatedCapacity() > 0)
+                ? beerLocationStockRepository.quantitiesByBeerId()
+                : Map.of();
+        return beers.stream()
+                .map(beer -> {
+                    BeerDTO beerDTO = beerMapper.toDTO(beer);
+                    beerDTO.setQuantity(beer.getQuantity() + locationQuantities.getOrDefault(beer.getId(), 0));
+                    return beerDTO;
+                })
+                .toList();
+    }
+
+    /**
+     * Runs the load in a flight shared with the other clients, unless the current client wrote recently: a
+     * flight started by another client may read from the replica, which may not have that write yet.
+     */
+    private <V, E extends Exception> V shared(SingleFlight<String, V> flight, String key,
+                                              SingleFlight.Loader<V, E> loader) throws E {
+        if (readYourWritesTracker.wroteRecently(ClientContext.currentClient())) {
+            return loader.load();
+        }
+        return flight.execute(key, loader);
+    }
+
+    /**
+     * Runs the update of an in-memory view once the surrounding transaction has committed, or right away
+     * outside of one, so that views never show a write that may still roll back.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static boolean isUniqueConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation) {
+                return constraintViolation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
     }
 
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
@@ -60,24 +610,72 @@ public class BeerService {
     }
 
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(quantityAfterIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
-        }
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        return stockAdjustmentCombiner.adjust(id, quantityToIncrement, this::applyStockAdjustments);
     }
 
     public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToDecrementStock = verifyIfExists(id);
-        int quantityAfterDecrement = beerToDecrementStock.getQuantity() - quantityToDecrement;
-        if (quantityAfterDecrement >= 0) {
-            beerToDecrementStock.setQuantity(quantityAfterDecrement);
-            Beer decrementedBeerStock = beerRepository.save(beerToDecrementStock);
-            return beerMapper.toDTO(decrementedBeerStock);
+        return stockAdjustmentCombiner.adjust(id, -quantityToDecrement, this::applyStockAdjustments);
+    }
+
+    /**
+     * Applies a batch of combined adjustments of the unassigned stock in arrival order, rejecting the ones
+     * that would take it below zero or above what locations leave of max, and writes the net result with a
+     * single compare-and-set update. If the row changed since it was read, the whole batch is evaluated
+     * again. Adjusted beers are reported with their aggregate quantity.
+     */
+    private void applyStockAdjustments(Long id, List<StockAdjustmentCombiner.Adjustment> batch) {
+        while (true) {
+            Optional<Beer> optBeer = beerRepository.findById(id);
+            if (optBeer.isEmpty()) {
+                BeerNotFoundException beerNotFoundException = new BeerNotFoundException(id);
+                batch.forEach(adjustment -> adjustment.reject(beerNotFoundException));
+                return;
+            }
+
+            Beer beer = optBeer.get();
+            int capacity = beer.getMax() - beer.getAllocatedCapacity();
+            int initialQuantity = beer.getQuantity();
+            int[] resultingQuantities = new int[batch.size()];
+            int quantity = initialQuantity;
+            for (int i = 0; i < batch.size(); i++) {
+                int quantityAfterAdjustment = quantity + batch.get(i).getDelta();
+                if (quantityAfterAdjustment >= 0 && quantityAfterAdjustment <= capacity) {
+                    quantity = quantityAfterAdjustment;
+                    resultingQuantities[i] = quantityAfterAdjustment;
+                } else {
+                    resultingQuantities[i] = -1;
+                }
+            }
+
+            if (quantity != initialQuantity && beerRepository.compareAndSetQuantity(id, initialQuantity, quantity) == 0) {
+                continue;
+            }
+            int locationQuantity = beer.getAllocatedCapacity() > 0
+                    ? (int) beerLocationStockRepository.sumQuantityByBeerId(id)
+                    : 0;
+            if (quantity != initialQuantity) {
+                int delta = quantity - initialQuantity;
+                int aggregateQuantity = quantity + locationQuantity;
+                long now = System.currentTimeMillis();
+                afterCommit(() -> {
+                    stockHistory.record(id, now, aggregateQuantity);
+                    columnarCatalog.adjustQuantity(id, delta);
+                });
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                StockAdjustmentCombiner.Adjustment adjustment = batch.get(i);
+                if (resultingQuantities[i] < 0) {
+                    adjustment.reject(new BeerStockExceededException(id, Math.abs(adjustment.getDelta())));
+                } else {
+                    BeerDTO adjustedBeerDTO = beerMapper.toDTO(beer);
+                    adjustedBeerDTO.setQuantity(resultingQuantities[i] + locationQuantity);
+                    // The batch is written on the combining thread, on behalf of every client in it
+                    readYourWritesTracker.recordWrite(adjustment.getClientId());
+                    adjustment.accept(adjustedBeerDTO);
+                }
+            }
+            return;
         }
-        throw new BeerStockExceededException(id, quantityToDecrement);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package one.digitalinnovation.beerstock.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.JobDTO;
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import one.digitalinnovation.beerstock.enums.JobType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.JobNotFoundException;
+import one.digitalinnovation.beerstock.exception.JobResultNotAvailableException;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import one.digitalinnovation.beerstock.job.Job;
+import one.digitalinnovation.beerstock.job.JobExecutor;
+import one.digitalinnovation.beerstock.job.JobProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Long-running catalog operations submitted as background jobs. Each item of a bulk job runs in its own
+ * {@link BeerService} transaction, so a cancelled or failed job keeps the items it already processed.
+ */
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class JobService {
+
+    private final BeerService beerService;
+    private final JobExecutor jobExecutor;
+    private final Validator validator;
+
+    /**
+     * The catalog is read in one go, so the export reports no progress; it can still be cancelled before
+     * the read.
+     */
+    public JobDTO submitExport() throws ServiceOverloadedException {
+        return toDTO(jobExecutor.submit(JobType.EXPORT, progress -> {
+            progress.checkpoint();
+            return beerService.listAll();
+        }));
+    }
+
+    public JobDTO submitImport(List<BeerDTO> beers) throws ServiceOverloadedException {
+        List<BeerDTO> beersToImport = List.copyOf(beers);
+        return toDTO(jobExecutor.submit(JobType.IMPORT, progress -> importBeers(beersToImport, progress)));
+    }
+
+    public JobDTO submitBulkDelete(List<Long> ids) throws ServiceOverloadedException {
+        List<Long> idsToDelete = List.copyOf(ids);
+        return toDTO(jobExecutor.submit(JobType.BULK_DELETE, progress -> deleteBeers(idsToDelete, progress)));
+    }
+
+    public JobDTO submitRestockPlan(double targetFillRatio, int maxQuantityPerOrder)
+            throws InvalidParameterException, ServiceOverloadedException {
+        BeerService.validateRestockParameters(targetFillRatio, maxQuantityPerOrder);
+        return toDTO(jobExecutor.submit(JobType.RESTOCK_PLAN, progress -> {
+            progress.setTotal(1);
+            progress.checkpoint();
+            Object plan = beerService.restockPlan(targetFillRatio, maxQuantityPerOrder);
+            progress.advance();
+            return plan;
+        }));
+    }
+
+    public JobDTO findById(UUID id) throws JobNotFoundException {
+        return toDTO(verifyIfExists(id));
+    }
+
+    public JobDTO cancel(UUID id) throws JobNotFoundException {
+        Job job = verifyIfExists(id);
+        job.cancel();
+        return toDTO(job);
+    }
+
+    public Object result(UUID id) throws JobNotFoundException, JobResultNotAvailableException {
+        Job job = verifyIfExists(id);
+        JobStatus status = job.getStatus();
+        if (status != JobStatus.SUCCEEDED) {
+            throw new JobResultNotAvailableException(id, status);
+        }
+        return job.getResult();
+    }
+
+    private BulkOperationResultDTO importBeers(List<BeerDTO> beers, JobProgress progress) {
+        progress.setTotal(beers.size());
+        List<String> failures = new ArrayList<>();
+        for (BeerDTO beer : beers) {
+            progress.advance();
+            Set<ConstraintViolation<BeerDTO>> violations = validator.validate(beer);
+            if (!violations.isEmpty()) {
+                failures.add(beer.getName() + ": " + violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            try {
+                beerService.createBeer(beer);
+            } catch (BeerAlreadyRegisteredException e) {
+                failures.add(beer.getName() + ": " + e.getMessage());
+            }
+        }
+        return toResult(beers.size(), failures);
+    }
+
+    private BulkOperationResultDTO deleteBeers(List<Long> ids, JobProgress progress) {
+        progress.setTotal(ids.size());
+        List<String> failures = new ArrayList<>();
+        for (Long id : ids) {
+            progress.advance();
+            try {
+                beerService.deleteById(id);
+            } catch (BeerNotFoundException e) {
+                failures.add(id + ": " + e.getMessage());
+            }
+        }
+        return toResult(ids.size(), failures);
+    }
+
+    private static BulkOperationResultDTO toResult(int processed, List<String> failures) {
+        return BulkOperationResultDTO.builder()
+                .succeeded(processed - failures.size())
+                .failed(failures.size())
+                .failures(failures)
+                .build();
+    }
+
+    private Job verifyIfExists(UUID id) throws JobNotFoundException {
+        return jobExecutor.find(id)
+                .orElseThrow(() -> new JobNotFoundException(id));
+    }
+
+    private static JobDTO toDTO(Job job) {
+        return JobDTO.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .processed(job.getProgress().getProcessed())
+                .total(job.getProgress().getTotal())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+}
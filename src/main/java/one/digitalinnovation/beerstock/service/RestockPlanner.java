@@ -0,0 +1,155 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.catalog.CatalogSnapshot;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.RestockLineDTO;
+import one.digitalinnovation.beerstock.dto.RestockOrderDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Computes how much of every beer has to be ordered to bring it up to a fill ratio of its max, grouped
+ * into orders per brand (standing in for the supplier) and type, each order holding at most a given
+ * quantity. A snapshot is split into ranges computed in parallel on the common fork/join pool; beers
+ * streamed from the repository are planned one at a time as they arrive. The target is computed in
+ * integers from the ratio in millionths, so that 30 at a ratio of 0.1 gives 3, not the 4 that rounding up
+ * the double product would.
+ */
+public class RestockPlanner {
+
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private static final long MILLIONTHS = 1_000_000;
+
+    private record OrderGroup(String brand, BeerType type) {
+    }
+
+    public RestockPlanDTO plan(CatalogSnapshot snapshot, double targetFillRatio, int maxQuantityPerOrder) {
+        Map<OrderGroup, List<RestockLineDTO>> linesByGroup = ForkJoinPool.commonPool()
+                .invoke(new PlanTask(snapshot, millionths(targetFillRatio), 0, snapshot.size()));
+        return toPlan(linesByGroup, targetFillRatio, maxQuantityPerOrder);
+    }
+
+    /**
+     * @param catalog passes every beer of the catalog to the consumer it is given, in id order
+     */
+    public RestockPlanDTO plan(Consumer<Consumer<BeerDTO>> catalog, double targetFillRatio, int maxQuantityPerOrder) {
+        long targetFillMillionths = millionths(targetFillRatio);
+        Map<OrderGroup, List<RestockLineDTO>> linesByGroup = new HashMap<>();
+        catalog.accept(beer -> addLine(linesByGroup, beer.getBrand(), beer.getType(), beer.getId(), beer.getName(),
+                beer.getMax(), beer.getQuantity(), targetFillMillionths));
+        return toPlan(linesByGroup, targetFillRatio, maxQuantityPerOrder);
+    }
+
+    private static RestockPlanDTO toPlan(Map<OrderGroup, List<RestockLineDTO>> linesByGroup, double targetFillRatio,
+                                         int maxQuantityPerOrder) {
+        List<OrderGroup> groups = new ArrayList<>(linesByGroup.keySet());
+        groups.sort(Comparator.comparing(OrderGroup::brand).thenComparing(OrderGroup::type));
+
+        List<RestockOrderDTO> orders = new ArrayList<>();
+        int totalQuantity = 0;
+        for (OrderGroup group : groups) {
+            for (RestockOrderDTO order : splitIntoOrders(group, linesByGroup.get(group), maxQuantityPerOrder)) {
+                orders.add(order);
+                totalQuantity += order.getTotalQuantity();
+            }
+        }
+        return RestockPlanDTO.builder()
+                .targetFillRatio(targetFillRatio)
+                .maxQuantityPerOrder(maxQuantityPerOrder)
+                .totalQuantity(totalQuantity)
+                .orders(orders)
+                .build();
+    }
+
+    private static long millionths(double ratio) {
+        return Math.round(ratio * MILLIONTHS);
+    }
+
+    private static void addLine(Map<OrderGroup, List<RestockLineDTO>> linesByGroup, String brand, BeerType type,
+                                long id, String name, int max, int quantity, long targetFillMillionths) {
+        int target = (int) ((max * targetFillMillionths + MILLIONTHS - 1) / MILLIONTHS);
+        int missing = target - quantity;
+        if (missing > 0) {
+            linesByGroup.computeIfAbsent(new OrderGroup(brand, type), key -> new ArrayList<>())
+                    .add(new RestockLineDTO(id, name, missing));
+        }
+    }
+
+    /**
+     * Packs the lines of a group into orders of at most {@code maxQuantityPerOrder}, splitting a line over
+     * several orders when it does not fit.
+     */
+    private static List<RestockOrderDTO> splitIntoOrders(OrderGroup group, List<RestockLineDTO> lines, int maxQuantityPerOrder) {
+        List<RestockOrderDTO> orders = new ArrayList<>();
+        RestockOrderDTO order = newOrder(group);
+        for (RestockLineDTO line : lines) {
+            int remaining = line.getQuantity();
+            while (remaining > 0) {
+                if (order.getTotalQuantity() == maxQuantityPerOrder) {
+                    orders.add(order);
+                    order = newOrder(group);
+                }
+                int quantity = Math.min(remaining, maxQuantityPerOrder - order.getTotalQuantity());
+                order.getLines().add(new RestockLineDTO(line.getBeerId(), line.getName(), quantity));
+                order.setTotalQuantity(order.getTotalQuantity() + quantity);
+                remaining -= quantity;
+            }
+        }
+        if (order.getTotalQuantity() > 0) {
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static RestockOrderDTO newOrder(OrderGroup group) {
+        return new RestockOrderDTO(group.brand(), group.type(), 0, new ArrayList<>());
+    }
+
+    private static class PlanTask extends RecursiveTask<Map<OrderGroup, List<RestockLineDTO>>> {
+
+        private final CatalogSnapshot snapshot;
+        private final long targetFillMillionths;
+        private final int from;
+        private final int to;
+
+        PlanTask(CatalogSnapshot snapshot, long targetFillMillionths, int from, int to) {
+            this.snapshot = snapshot;
+            this.targetFillMillionths = targetFillMillionths;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<OrderGroup, List<RestockLineDTO>> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return computeSequentially();
+            }
+            int middle = (from + to) >>> 1;
+            PlanTask left = new PlanTask(snapshot, targetFillMillionths, from, middle);
+            left.fork();
+            Map<OrderGroup, List<RestockLineDTO>> right = new PlanTask(snapshot, targetFillMillionths, middle, to).compute();
+            Map<OrderGroup, List<RestockLineDTO>> merged = left.join();
+            right.forEach((group, lines) -> merged.computeIfAbsent(group, key -> new ArrayList<>()).addAll(lines));
+            return merged;
+        }
+
+        private Map<OrderGroup, List<RestockLineDTO>> computeSequentially() {
+            Map<OrderGroup, List<RestockLineDTO>> linesByGroup = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                addLine(linesByGroup, snapshot.brand(i), snapshot.type(i), snapshot.id(i), snapshot.name(i),
+                        snapshot.max(i), snapshot.quantity(i), targetFillMillionths);
+            }
+            return linesByGroup;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.Getter;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.replica.ClientContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Folds concurrent stock adjustments of the same beer into one database update (flat combining).
+ *
+ * <p>Every caller queues its adjustment in the lane of its beer id. Whoever gets the lane's lock becomes
+ * the combiner: it hands every queued adjustment, in arrival order, to the {@link BatchApplier} and then
+ * completes each caller with its own result. Adjustments arriving while a batch is being written wait for
+ * the next batch, so the batching window is the duration of the previous write. A caller only returns
+ * once the batch holding its adjustment has been written.</p>
+ */
+public class StockAdjustmentCombiner {
+
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @FunctionalInterface
+    public interface BatchApplier {
+        /**
+         * Applies the adjustments in order and completes each of them with {@link Adjustment#accept(BeerDTO)}
+         * or {@link Adjustment#reject(Exception)}.
+         */
+        void apply(Long id, List<Adjustment> batch);
+    }
+
+    private final ConcurrentMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public BeerDTO adjust(Long id, int delta, BatchApplier batchApplier)
+            throws BeerNotFoundException, BeerStockExceededException {
+        Lane lane = lanes.computeIfAbsent(id, key -> new Lane());
+        Adjustment adjustment = new Adjustment(delta, Thread.currentThread(), ClientContext.currentClient());
+        lane.pending.add(adjustment);
+
+        while (!adjustment.done) {
+            if (lane.lock.tryLock()) {
+                try {
+                    if (!adjustment.done) {
+                        combine(id, lane, batchApplier);
+                    }
+                } finally {
+                    lane.lock.unlock();
+                    handOff(id, lane);
+                }
+            } else {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        }
+        return adjustment.outcome();
+    }
+
+    public int laneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Wakes the next waiter up to combine, also when the batch failed, or drops the lane once it is empty.
+     */
+    private void handOff(Long id, Lane lane) {
+        Adjustment next = lane.pending.peek();
+        if (next != null) {
+            LockSupport.unpark(next.waiter);
+        } else {
+            lanes.remove(id, lane);
+        }
+    }
+
+    private void combine(Long id, Lane lane, BatchApplier batchApplier) {
+        List<Adjustment> batch = new ArrayList<>();
+        Adjustment adjustment;
+        while (batch.size() < MAX_BATCH_SIZE && (adjustment = lane.pending.poll()) != null) {
+            batch.add(adjustment);
+        }
+        try {
+            batchApplier.apply(id, batch);
+        } catch (RuntimeException | Error e) {
+            batch.forEach(pending -> pending.reject(e));
+            throw e;
+        } finally {
+            batch.forEach(Adjustment::wakeUp);
+        }
+    }
+
+    private static class Lane {
+
+        private final Queue<Adjustment> pending = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+
+    public static class Adjustment {
+
+        @Getter
+        private final int delta;
+        private final Thread waiter;
+        /**
+         * Client that made the adjustment, which may not be the one whose thread writes the batch.
+         */
+        @Getter
+        private final String clientId;
+
+        private BeerDTO result;
+        private Throwable failure;
+        private volatile boolean done;
+
+        private Adjustment(int delta, Thread waiter, String clientId) {
+            this.delta = delta;
+            this.waiter = waiter;
+            this.clientId = clientId;
+        }
+
+        public void accept(BeerDTO result) {
+            if (!done) {
+                this.result = result;
+                this.done = true;
+            }
+        }
+
+        public void reject(Throwable failure) {
+            if (!done) {
+                this.failure = failure;
+                this.done = true;
+            }
+        }
+
+        private void wakeUp() {
+            if (waiter != Thread.currentThread()) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+        private BeerDTO outcome() throws BeerNotFoundException, BeerStockExceededException {
+            if (failure == null) {
+                return result;
+            }
+            if (failure instanceof BeerNotFoundException beerNotFoundException) {
+                throw beerNotFoundException;
+            }
+            if (failure instanceof BeerStockExceededException beerStockExceededException) {
+                throw beerStockExceededException;
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw (Error) failure;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package one.digitalinnovation.beerstock.accesslog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AccessLogRingBufferTest {
+
+    @Test
+    void whenRingIsFullThenOfferDropsAndCounts() {
+        AccessLogRingBuffer<Integer> ringBuffer = new AccessLogRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(i), is(true));
+        }
+        assertThat(ringBuffer.offer(4), is(false));
+        assertThat(ringBuffer.droppedCount(), is(1L));
+
+        assertThat(ringBuffer.poll(), is(0));
+        assertThat(ringBuffer.offer(5), is(true));
+        assertThat(ringBuffer.poll(), is(1));
+        assertThat(ringBuffer.poll(), is(2));
+        assertThat(ringBuffer.poll(), is(3));
+        assertThat(ringBuffer.poll(), is(5));
+        assertThat(ringBuffer.poll(), is(nullValue()));
+    }
+
+    @Test
+    void whenManyProducersOfferConcurrentlyThenEveryAcceptedElementIsPolledOnce() throws Exception {
+        int producers = 8;
+        int perProducer = 10_000;
+        AccessLogRingBuffer<Integer> ringBuffer = new AccessLogRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    ringBuffer.offer(base + i);
+                }
+            });
+        }
+
+        Set<Integer> polled = new HashSet<>();
+        start.countDown();
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+            drainInto(ringBuffer, polled);
+        }
+        drainInto(ringBuffer, polled);
+
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(polled.size() + ringBuffer.droppedCount(), is((long) producers * perProducer));
+    }
+
+    @Test
+    void whenEntryIsRenderedThenItIsOneEscapedJsonLine() {
+        AccessLogEntry entry = new AccessLogEntry(1_700_000_000_000L, "GET", "/api/v1/beers/{name}",
+                "Say \"Cheers\"\n", 404, 1_250);
+        StringBuilder json = new StringBuilder();
+
+        entry.appendJson(json);
+
+        assertThat(json.toString(), is("{\"ts\":1700000000000,\"method\":\"GET\",\"endpoint\":\"/api/v1/beers/{name}\","
+                + "\"beerId\":\"Say \\\"Cheers\\\"\\n\",\"status\":404,\"outcome\":\"client_error\",\"latencyMicros\":1250}"));
+    }
+
+    private static void drainInto(AccessLogRingBuffer<Integer> ringBuffer, Set<Integer> polled) {
+        Integer element;
+        while ((element = ringBuffer.poll()) != null) {
+            assertThat(polled.add(element), is(true));
+        }
+    }
+}
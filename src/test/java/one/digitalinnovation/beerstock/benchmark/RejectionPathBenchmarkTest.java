@@ -0,0 +1,102 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.exception.BeerStockDomainException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceptionHandler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Measures the cost of rejecting a stock adjustment: throwing the domain exception, catching it and
+ * rendering the ProblemDetail body. The legacy variant reproduces the previous exceptions, which
+ * captured a stack trace and formatted their message eagerly.
+ *
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class RejectionPathBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RejectionPathBenchmarkTest.class);
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private final BeerStockExceptionHandler exceptionHandler = new BeerStockExceptionHandler();
+
+    private long sink;
+
+    @Test
+    void rejectionPathThroughput() {
+        run(WARMUP_ITERATIONS, false);
+        run(WARMUP_ITERATIONS, true);
+
+        long legacyNanos = run(MEASURED_ITERATIONS, false);
+        long stacklessNanos = run(MEASURED_ITERATIONS, true);
+
+        log.info(String.format("rejection path, legacy exceptions:    %6.1f ns/op",
+                (double) legacyNanos / MEASURED_ITERATIONS));
+        log.info(String.format("rejection path, stackless exceptions: %6.1f ns/op",
+                (double) stacklessNanos / MEASURED_ITERATIONS));
+
+        assertThat(sink, greaterThan(0L));
+        assertThat(legacyProblemDetail(new LegacyStockExceededException(1L, 80)),
+                is(exceptionHandler.handleDomainException(new BeerStockExceededException(1L, 80))));
+    }
+
+    private long run(int iterations, boolean stackless) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            try {
+                if (stackless) {
+                    rejectStackless(i);
+                } else {
+                    rejectLegacy(i);
+                }
+            } catch (BeerStockDomainException e) {
+                ProblemDetail problemDetail = exceptionHandler.handleDomainException(e);
+                sink += problemDetail.getStatus();
+            } catch (LegacyStockExceededException e) {
+                ProblemDetail problemDetail = legacyProblemDetail(e);
+                sink += problemDetail.getStatus();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Renders the legacy exception the way the handler renders a domain exception, so that both paths
+     * build the same body.
+     */
+    private static ProblemDetail legacyProblemDetail(LegacyStockExceededException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(exception.getStatus(), exception.getMessage());
+        problemDetail.setTitle(exception.getStatus().getReasonPhrase());
+        return problemDetail;
+    }
+
+    private void rejectStackless(int i) throws BeerStockDomainException {
+        throw new BeerStockExceededException((long) i, 80);
+    }
+
+    private void rejectLegacy(int i) throws LegacyStockExceededException {
+        throw new LegacyStockExceededException((long) i, 80);
+    }
+
+    private static class LegacyStockExceededException extends Exception {
+
+        LegacyStockExceededException(Long id, int quantity) {
+            super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantity));
+        }
+
+        HttpStatus getStatus() {
+            return HttpStatus.BAD_REQUEST;
+        }
+    }
+}
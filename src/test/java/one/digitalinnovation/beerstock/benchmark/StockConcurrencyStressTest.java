@@ -0,0 +1,203 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Hammers {@link BeerService#increment}, {@link BeerService#decrement} and {@link BeerService#deleteById}
+ * from platform and virtual threads at several contention levels, checking that quantities never leave
+ * {@code 0..max}, that no accepted adjustment is lost and that each beer is deleted exactly once.
+ * Reports the adjustment throughput of every scenario.
+ *
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:beerstock-stress;DB_CLOSE_DELAY=-1")
+public class StockConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockConcurrencyStressTest.class);
+
+    private static final int MAX = 100;
+    private static final int INITIAL_QUANTITY = 50;
+    private static final int OPERATIONS_PER_WORKER = 500;
+    private static final int PLATFORM_THREADS = 16;
+    private static final int VIRTUAL_THREADS = 200;
+
+    private static final AtomicInteger SCENARIOS = new AtomicInteger();
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Test
+    void adjustmentsKeepStockInvariants() throws Exception {
+        for (int beers : new int[]{1, 4, 64}) {
+            runAdjustments("platform", beers, PLATFORM_THREADS, () -> Executors.newFixedThreadPool(PLATFORM_THREADS));
+            runAdjustments("virtual", beers, VIRTUAL_THREADS, Executors::newVirtualThreadPerTaskExecutor);
+        }
+    }
+
+    @Test
+    void concurrentDeletesRemoveEachBeerExactlyOnce() throws Exception {
+        List<Long> ids = createBeers(16);
+        AtomicLongArray successfulDeletes = new AtomicLongArray(ids.size());
+        Queue<Throwable> unexpectedErrors = new ConcurrentLinkedQueue<>();
+
+        runWorkers(VIRTUAL_THREADS, Executors::newVirtualThreadPerTaskExecutor, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_WORKER / 10; i++) {
+                int index = random.nextInt(ids.size());
+                Long id = ids.get(index);
+                try {
+                    if (random.nextInt(4) == 0) {
+                        beerService.deleteById(id);
+                        successfulDeletes.incrementAndGet(index);
+                    } else {
+                        checkBounds(beerService.increment(id, 1 + random.nextInt(10)));
+                    }
+                } catch (BeerNotFoundException | BeerStockExceededException expected) {
+                    // deleted by another worker, or rejected at the bounds
+                } catch (Throwable e) {
+                    unexpectedErrors.add(e);
+                }
+            }
+        });
+
+        assertThat(unexpectedErrors, is(empty()));
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat("deletes of beer " + ids.get(i), successfulDeletes.get(i), is(lessThanOrEqualTo(1L)));
+            assertThat(beerRepository.existsById(ids.get(i)), is(successfulDeletes.get(i) == 0));
+        }
+    }
+
+    private void runAdjustments(String threads, int beers, int workers, Supplier<ExecutorService> executorFactory)
+            throws Exception {
+        List<Long> ids = createBeers(beers);
+        AtomicLongArray acceptedDeltas = new AtomicLongArray(beers);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpectedErrors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread observer = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                beerRepository.findAllById(ids).forEach(beer -> {
+                    if (beer.getQuantity() < 0 || beer.getQuantity() > beer.getMax()) {
+                        unexpectedErrors.add(new AssertionError("Observed quantity " + beer.getQuantity()));
+                    }
+                });
+            }
+        });
+
+        long elapsedNanos = runWorkers(workers, executorFactory, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_WORKER; i++) {
+                int index = random.nextInt(beers);
+                int quantity = 1 + random.nextInt(10);
+                boolean increment = random.nextBoolean();
+                try {
+                    BeerDTO beer = increment
+                            ? beerService.increment(ids.get(index), quantity)
+                            : beerService.decrement(ids.get(index), quantity);
+                    checkBounds(beer);
+                    acceptedDeltas.addAndGet(index, increment ? quantity : -quantity);
+                    accepted.incrementAndGet();
+                } catch (BeerStockExceededException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpectedErrors.add(e);
+                }
+            }
+        });
+        running.set(false);
+        observer.join();
+
+        assertThat(unexpectedErrors, is(empty()));
+        Map<Long, Integer> finalQuantities = beerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Beer::getId, Beer::getQuantity));
+        for (int i = 0; i < beers; i++) {
+            assertThat("quantity of beer " + ids.get(i), finalQuantities.get(ids.get(i)),
+                    is((int) (INITIAL_QUANTITY + acceptedDeltas.get(i))));
+        }
+        int operations = workers * OPERATIONS_PER_WORKER;
+        assertThat(accepted.get() + rejected.get(), is(operations));
+
+        log.info(String.format("%-8s threads=%3d beers=%2d: %8.0f ops/s, %5.1f%% rejected", threads, workers, beers,
+                operations / (elapsedNanos / 1e9), 100.0 * rejected.get() / operations));
+    }
+
+    private static long runWorkers(int workers, Supplier<ExecutorService> executorFactory, Runnable worker)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = executorFactory.get()) {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    worker.run();
+                });
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.MINUTES), is(true));
+            return System.nanoTime() - startNanos;
+        }
+    }
+
+    private List<Long> createBeers(int beers) throws Exception {
+        int scenario = SCENARIOS.incrementAndGet();
+        List<Long> ids = new ArrayList<>(beers);
+        for (int i = 0; i < beers; i++) {
+            BeerDTO beerDTO = BeerDTOBuilder.builder()
+                    .id(null)
+                    .name("Stress " + scenario + "-" + i)
+                    .max(MAX)
+                    .quantity(INITIAL_QUANTITY)
+                    .build()
+                    .toBeerDTO();
+            ids.add(beerService.createBeer(beerDTO).getId());
+        }
+        return ids;
+    }
+
+    private static void checkBounds(BeerDTO beer) {
+        if (beer.getQuantity() < 0 || beer.getQuantity() > MAX) {
+            throw new AssertionError("Quantity " + beer.getQuantity() + " of beer " + beer.getId() + " out of bounds");
+        }
+    }
+}
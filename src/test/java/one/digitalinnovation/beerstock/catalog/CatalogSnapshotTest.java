@@ -0,0 +1,116 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CatalogSnapshotTest {
+
+    private static Beer beer(long id, String name, String brand, BeerType type, int quantity) {
+        return Beer.builder().id(id).name(name).brand(brand).max(50).quantity(quantity).type(type).build();
+    }
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+            beer(3L, "Skol", "Ambev", BeerType.LAGER, 5),
+            beer(1L, "Brahma", "Ambev", BeerType.LAGER, 10),
+            beer(2L, "Colorado Indica", "Colorado", BeerType.IPA, 20)));
+
+    @Test
+    void whenSnapshotIsBuiltThenBeersAreOrderedByIdAndDecoded() {
+        List<BeerDTO> beers = snapshot.toDTOs();
+
+        assertThat(beers.stream().map(BeerDTO::getId).toList(), contains(1L, 2L, 3L));
+        assertThat(beers.get(1), is(new BeerDTO(2L, "Colorado Indica", "Colorado", 50, 20, BeerType.IPA)));
+        assertThat(snapshot.brand(0), is(sameInstance(snapshot.brand(2))));
+    }
+
+    @Test
+    void whenFilteredThenOnlyMatchingBeersAreReturned() {
+        assertThat(snapshot.filter("Ambev", null).stream().map(BeerDTO::getName).toList(), contains("Brahma", "Skol"));
+        assertThat(snapshot.filter(null, BeerType.IPA).stream().map(BeerDTO::getName).toList(), contains("Colorado Indica"));
+        assertThat(snapshot.filter("Ambev", BeerType.IPA), is(empty()));
+        assertThat(snapshot.filter("Unknown", null), is(empty()));
+    }
+
+    @Test
+    void whenFieldsAreGivenThenOnlyThoseFieldsAreDecoded() {
+        List<BeerDTO> beers = snapshot.filter("Colorado", null, EnumSet.of(BeerField.ID, BeerField.QUANTITY));
+
+        assertThat(beers, contains(new BeerDTO(2L, null, null, null, 20, null)));
+    }
+
+    @Test
+    void whenQuantityIsAdjustedThenItChangesInPlaceForEverySnapshotSharingIt() {
+        CatalogSnapshot updated = snapshot.with(beer(4L, "Eisenbahn", "Baden", BeerType.WEISS, 2));
+
+        snapshot.adjustQuantity(2L, 22);
+
+        assertThat(snapshot.quantity(1), is(42));
+        assertThat(updated.quantity(1), is(42));
+        assertThat(updated.with(beer(2L, "Colorado Indica", "Colorado", BeerType.IPA, 7)), is(sameInstance(updated)));
+        assertThat(snapshot.quantity(1), is(7));
+    }
+
+    @Test
+    void whenBeersAreInsertedWhileQuantitiesAreAdjustedThenNoAdjustmentIsLost() throws InterruptedException {
+        AtomicReference<CatalogSnapshot> current = new AtomicReference<>(snapshot);
+        Thread inserter = new Thread(() -> {
+            for (long id = 10; id < 3_000; id++) {
+                current.set(current.get().with(beer(id, "Beer " + id, "Brand " + id % 7, BeerType.ALE, 0)));
+            }
+        });
+        inserter.start();
+        for (int i = 0; i < 10_000; i++) {
+            current.get().adjustQuantity(1L, 1);
+        }
+        inserter.join();
+
+        assertThat(current.get().size(), is(2_993));
+        assertThat(current.get().quantity(0), is(10_010));
+    }
+
+    @Test
+    void whenBeersAreInsertedAndRemovedThenIdOrderIsKept() {
+        CatalogSnapshot updated = snapshot
+                .with(beer(5L, "Baden Baden", "Baden", BeerType.STOUT, 1))
+                .with(beer(4L, "Eisenbahn", "Baden", BeerType.WEISS, 2))
+                .without(1L);
+
+        assertThat(updated.toDTOs().stream().map(BeerDTO::getId).toList(), contains(2L, 3L, 4L, 5L));
+        assertThat(updated.filter("Baden", null), hasSize(2));
+        assertThat(snapshot.size(), is(3));
+    }
+
+    @Test
+    void whenExistingBeerIsUpsertedThenItIsReplaced() {
+        CatalogSnapshot updated = snapshot.with(beer(1L, "Brahma Duplo Malte", "Ambev", BeerType.LAGER, 15));
+
+        assertThat(updated.size(), is(3));
+        assertThat(updated.toDTO(0).getName(), is("Brahma Duplo Malte"));
+    }
+
+    @Test
+    void whenBeersAreUpsertedTogetherThenInsertsAndReplacementsMergeInIdOrder() {
+        CatalogSnapshot updated = snapshot.withAll(List.of(
+                beer(5L, "Baden Baden", "Baden", BeerType.STOUT, 1),
+                beer(0L, "Bohemia", "Ambev", BeerType.MALZBIER, 3),
+                beer(2L, "Colorado Appia", "Colorado", BeerType.ALE, 4),
+                beer(4L, "Eisenbahn", "Baden", BeerType.WEISS, 2)));
+
+        assertThat(updated.toDTOs().stream().map(BeerDTO::getId).toList(), contains(0L, 1L, 2L, 3L, 4L, 5L));
+        assertThat(updated.toDTO(2), is(new BeerDTO(2L, "Colorado Appia", "Colorado", 50, 4, BeerType.ALE)));
+        assertThat(updated.filter("Baden", null).stream().map(BeerDTO::getName).toList(),
+                contains("Eisenbahn", "Baden Baden"));
+        assertThat(snapshot.toDTO(1).getName(), is("Colorado Indica"));
+        assertThat(snapshot.withAll(List.of()), is(sameInstance(snapshot)));
+    }
+}
@@ -0,0 +1,86 @@
+package one.digitalinnovation.beerstock.catalog;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerstock-catalog;DB_CLOSE_DELAY=-1",
+        "beerstock.catalog.columnar.enabled=true"
+})
+public class ColumnarCatalogTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ColumnarCatalog columnarCatalog;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    private BeerDTO listed(Long id) {
+        return beerService.listAll().stream().filter(beer -> beer.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    @Test
+    void whenWritesRollBackThenTheCatalogDoesNotShowThem() throws Exception {
+        Long id = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Rolled back").max(50).quantity(10)
+                .build().toBeerDTO()).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                beerService.increment(id, 5);
+                beerService.deleteById(id);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertThat(listed(id).getQuantity(), is(10));
+            status.setRollbackOnly();
+        });
+
+        assertThat(listed(id).getQuantity(), is(10));
+        assertThat(beerService.increment(id, 5).getQuantity(), is(15));
+        assertThat(listed(id).getQuantity(), is(15));
+    }
+
+    @Test
+    void whenCatalogIsRebuiltThenWritesOfOtherInstancesShowUp() throws Exception {
+        Long id = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Elsewhere").max(50).quantity(10)
+                .build().toBeerDTO()).getId();
+        beerRepository.compareAndSetQuantity(id, 10, 30);
+        assertThat(listed(id).getQuantity(), is(10));
+
+        columnarCatalog.rebuild();
+
+        assertThat(listed(id).getQuantity(), is(30));
+        assertThat(beerService.increment(id, 5).getQuantity(), is(35));
+        assertThat(listed(id).getQuantity(), is(35));
+    }
+
+    @Test
+    void whenAdjustmentIsAppliedBeforeTheInsertThenTheInsertKeepsIt() {
+        Beer beer = Beer.builder().id(Long.MAX_VALUE).name("Late insert").brand("Brand").max(50).quantity(10)
+                .type(BeerType.LAGER).build();
+
+        columnarCatalog.adjustQuantity(beer.getId(), 5);
+        columnarCatalog.upsert(beer);
+
+        CatalogSnapshot snapshot = columnarCatalog.snapshot();
+        assertThat(snapshot.quantity(snapshot.size() - 1), is(15));
+        columnarCatalog.remove(beer.getId());
+    }
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardingConfigTest {
+
+    @Test
+    void whenShardingIsCombinedWithLocationsThenStartupIsRefused() {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(WebApplicationType.NONE);
+
+        Exception exception = assertThrows(Exception.class, () -> application.run(
+                "--spring.datasource.url=jdbc:h2:mem:beerstock-refused;DB_CLOSE_DELAY=-1",
+                "--beerstock.sharding.enabled=true",
+                "--beerstock.sharding.shards[0].url=jdbc:h2:mem:beerstock-refused-shard0;DB_CLOSE_DELAY=-1"));
+
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(exception);
+        assertThat(cause, is(instanceOf(IllegalStateException.class)));
+        assertThat(cause.getMessage(), containsString("beerstock.locations.enabled=false"));
+    }
+}
@@ -1,11 +1,29 @@
 package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.HotBeerDTO;
+import one.digitalinnovation.beerstock.dto.HotBeersDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.dto.StockHistoryDTO;
+import one.digitalinnovation.beerstock.dto.StockHistoryPointDTO;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceptionHandler;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.limiter.AimdConcurrencyLimiter;
+import one.digitalinnovation.beerstock.limiter.ConcurrencyLimitInterceptor;
+import one.digitalinnovation.beerstock.hot.HotBeerInterceptor;
+import one.digitalinnovation.beerstock.hot.HotBeers;
 import one.digitalinnovation.beerstock.service.BeerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,13 +37,22 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.LongConsumer;
 
 import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,6 +71,9 @@ public class BeerControllerTest {
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private HotBeers hotBeers;
+
     @InjectMocks
     private BeerController beerController;
     
@@ -51,8 +81,10 @@ public class BeerControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new BeerStockExceptionHandler())
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((viewName, locale) -> new MappingJackson2JsonView())
+                .addInterceptors(new HotBeerInterceptor(hotBeers))
                 .build();
     }
     // --- FIM DA CORREÇÃO ---
@@ -93,6 +125,41 @@ public class BeerControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void whenPUTIsCalledWithBeersThenTheirUpsertResultIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.upsert(List.of(beerDTO)))
+                .thenReturn(new BulkOperationResultDTO(1, 0, List.of()));
+
+        mockMvc.perform(put(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new BeerBatchDTO(List.of(beerDTO)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)));
+    }
+
+    @Test
+    void whenPUTIsCalledWithAnInvalidBeerThenBadRequestIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand(null);
+
+        mockMvc.perform(put(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new BeerBatchDTO(List.of(beerDTO)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPUTIsCalledWithTheSameNameTwiceThenBadRequestIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        mockMvc.perform(put(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new BeerBatchDTO(List.of(beerDTO, beerDTO)))))
+                .andExpect(status().isBadRequest());
+        verify(beerService, never()).upsert(any());
+    }
+
     @Test
     void whenGETByNameIsCalledWithValidNameThenOkIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -107,11 +174,14 @@ public class BeerControllerTest {
     @Test
     void whenGETByNameIsCalledWithInvalidNameThenNotFoundIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        when(beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
+        when(beerService.findByName(beerDTO.getName())).thenThrow(new BeerNotFoundException(beerDTO.getName()));
 
         mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName())
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.detail", is("Beer with name " + beerDTO.getName() + " not found in the system.")));
     }
 
     @Test
@@ -125,6 +195,74 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
     }
 
+    @Test
+    void whenGETListIsCalledWithFieldsThenOnlyThoseFieldsAreReturned() throws Exception {
+        BeerDTO sparseBeer = new BeerDTO();
+        sparseBeer.setId(VALID_BEER_ID);
+        sparseBeer.setQuantity(10);
+        when(beerService.listAll(EnumSet.of(BeerField.ID, BeerField.QUANTITY)))
+                .thenReturn(Collections.singletonList(sparseBeer));
+
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                        .param("fields", "id,quantity")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is((int) VALID_BEER_ID)))
+                .andExpect(jsonPath("$[0].quantity", is(10)))
+                .andExpect(jsonPath("$[0].name").doesNotExist())
+                .andExpect(jsonPath("$[0].brand").doesNotExist());
+    }
+
+    @Test
+    void whenGETByNameIsCalledWithUnknownFieldThenBadRequestIsReturned() throws Exception {
+        mockMvc.perform(get(BEER_API_URL_PATH + "/Brahma")
+                        .param("fields", "id,price")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)));
+    }
+
+    @Test
+    void whenGETHotIsCalledThenTheRankingOfTheKindIsReturned() throws Exception {
+        when(hotBeers.top(HotBeerKind.ADJUSTED, 5)).thenReturn(new HotBeersDTO(HotBeerKind.ADJUSTED, 12,
+                List.of(new HotBeerDTO(VALID_BEER_ID, 10, 8))));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/-/hot")
+                        .param("kind", "ADJUSTED")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", is(12)))
+                .andExpect(jsonPath("$.beers[0].beerId", is((int) VALID_BEER_ID)));
+    }
+
+    @Test
+    void whenGETByNameIsCalledWithFieldsWithoutIdThenLookupIsCountedAndIdIsLeftOut() throws Exception {
+        BeerDTO sparseBeer = new BeerDTO();
+        sparseBeer.setQuantity(10);
+        BeerField.Selection selection = new BeerField.Selection(EnumSet.of(BeerField.ID, BeerField.QUANTITY), false);
+        when(beerService.findByName(eq("Brahma"), eq(selection), any())).thenAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(2).accept(VALID_BEER_ID);
+            return sparseBeer;
+        });
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/Brahma")
+                        .param("fields", "quantity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(10)))
+                .andExpect(jsonPath("$.id").doesNotExist());
+        verify(hotBeers).record(HotBeerKind.REQUESTED, VALID_BEER_ID);
+    }
+
+    @Test
+    void whenGETHistoryIsCalledWithInvalidIdThenLookupIsNotCounted() throws Exception {
+        when(beerService.history(INVALID_BEER_ID, null, null, HistoryResolution.MINUTE))
+                .thenThrow(new BeerNotFoundException(INVALID_BEER_ID));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + "/history"))
+                .andExpect(status().isNotFound());
+        verify(hotBeers, never()).record(any(), any());
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentIsReturned() throws Exception {
         doNothing().when(beerService).deleteById(VALID_BEER_ID);
@@ -222,4 +360,161 @@ public class BeerControllerTest {
                         .content(asJsonString(quantityDTO)))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenReadLimitIsExceededThenServiceUnavailableWithRetryAfterIsReturned() throws Exception {
+        AimdConcurrencyLimiter readLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        AimdConcurrencyLimiter writeLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new BeerStockExceptionHandler())
+                .addInterceptors(new ConcurrencyLimitInterceptor(readLimiter, readLimiter, List.of(), writeLimiter, Duration.ofSeconds(2)))
+                .build();
+        readLimiter.tryAcquire();
+
+        limitedMockMvc.perform(get(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void whenRetryAfterIsUnderASecondThenItIsRoundedUpToOneSecond() throws Exception {
+        AimdConcurrencyLimiter readLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        AimdConcurrencyLimiter writeLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new BeerStockExceptionHandler())
+                .addInterceptors(new ConcurrencyLimitInterceptor(readLimiter, readLimiter, List.of(), writeLimiter, Duration.ofMillis(500)))
+                .build();
+        readLimiter.tryAcquire();
+
+        limitedMockMvc.perform(get(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.detail", is("Too many concurrent requests, retry in 1 seconds.")));
+    }
+
+    @Test
+    void whenReadLimitIsExhaustedThenCatalogScansGoThroughTheirOwnLimiter() throws Exception {
+        AimdConcurrencyLimiter readLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        AimdConcurrencyLimiter scanLimiter = new AimdConcurrencyLimiter(1, 1, 1, 1000, 0.9);
+        AimdConcurrencyLimiter writeLimiter = new AimdConcurrencyLimiter(1, 1, 1, 100, 0.9);
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .setControllerAdvice(new BeerStockExceptionHandler())
+                .addInterceptors(new ConcurrencyLimitInterceptor(readLimiter, scanLimiter,
+                        List.of(BEER_API_URL_PATH, BEER_API_URL_PATH + "/-/changes"), writeLimiter, Duration.ofSeconds(1)))
+                .build();
+        when(beerService.listAll()).thenReturn(List.of());
+        readLimiter.tryAcquire();
+
+        limitedMockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isOk());
+        limitedMockMvc.perform(get(BEER_API_URL_PATH + "/Brahma"))
+                .andExpect(status().isServiceUnavailable());
+
+        readLimiter.release(0);
+        scanLimiter.tryAcquire();
+
+        limitedMockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isServiceUnavailable());
+        limitedMockMvc.perform(get(BEER_API_URL_PATH + "/-/changes"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void whenGETHistoryIsCalledThenStockHistoryIsReturned() throws Exception {
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-01T01:00:00Z");
+        StockHistoryDTO historyDTO = StockHistoryDTO.builder()
+                .beerId(VALID_BEER_ID)
+                .resolution(HistoryResolution.HOUR)
+                .points(Collections.singletonList(new StockHistoryPointDTO(from, 5, 10, 8)))
+                .build();
+        when(beerService.history(VALID_BEER_ID, from, to, HistoryResolution.HOUR)).thenReturn(historyDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/history")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("resolution", "HOUR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution", is("HOUR")))
+                .andExpect(jsonPath("$.points[0].min", is(5)))
+                .andExpect(jsonPath("$.points[0].last", is(8)));
+    }
+
+    @Test
+    void whenGETHistoryIsCalledWithInvalidIdThenNotFoundIsReturned() throws Exception {
+        when(beerService.history(INVALID_BEER_ID, null, null, HistoryResolution.MINUTE))
+                .thenThrow(new BeerNotFoundException(INVALID_BEER_ID));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + "/history"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenGETListIsCalledWithFiltersThenFilteredListIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.search(beerDTO.getBrand(), BeerType.LAGER)).thenReturn(Collections.singletonList(beerDTO));
+
+        mockMvc.perform(get(BEER_API_URL_PATH)
+                        .param("brand", beerDTO.getBrand())
+                        .param("type", "LAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETRestockPlanIsCalledThenPlanIsReturned() throws Exception {
+        RestockPlanDTO planDTO = RestockPlanDTO.builder()
+                .targetFillRatio(0.5)
+                .maxQuantityPerOrder(100)
+                .totalQuantity(0)
+                .orders(Collections.emptyList())
+                .build();
+        when(beerService.restockPlan(0.5, 100)).thenReturn(planDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/-/restock-plan")
+                        .param("targetFillRatio", "0.5")
+                        .param("maxQuantityPerOrder", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxQuantityPerOrder", is(100)));
+    }
+
+    @Test
+    void whenGETRestockPlanIsCalledWithInvalidRatioThenBadRequestIsReturned() throws Exception {
+        when(beerService.restockPlan(1.5, 500))
+                .thenThrow(new InvalidParameterException("targetFillRatio", "must be greater than 0 and at most 1"));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/-/restock-plan")
+                        .param("targetFillRatio", "1.5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETByNameIsCalledForABeerNamedRestockPlanThenTheBeerIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setName("restock-plan");
+        when(beerService.findByName("restock-plan")).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/restock-plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("restock-plan")));
+    }
+
+    @Test
+    void whenGETChangesIsCalledThenTheChangesSinceTheTokenAreReturned() throws Exception {
+        BeerChangesDTO changesDTO = BeerChangesDTO.builder()
+                .token("7")
+                .beers(Collections.emptyList())
+                .deletedIds(List.of(VALID_BEER_ID))
+                .build();
+        when(beerService.changes("3", 100)).thenReturn(changesDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/-/changes")
+                        .param("since", "3")
+                        .param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is("7")))
+                .andExpect(jsonPath("$.deletedIds[0]", is((int) VALID_BEER_ID)));
+    }
+}
@@ -0,0 +1,102 @@
+package one.digitalinnovation.beerstock.history;
+
+import one.digitalinnovation.beerstock.dto.StockHistoryPointDTO;
+import one.digitalinnovation.beerstock.enums.HistoryResolution;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StockHistoryTest {
+
+    private static final Long BEER_ID = 1L;
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    private final StockHistory stockHistory = new StockHistory();
+
+    @Test
+    void whenSamplesAreRecordedThenMinuteBucketsHoldMinMaxAndLast() {
+        stockHistory.record(BEER_ID, 0, 10);
+        stockHistory.record(BEER_ID, 10_000, 4);
+        stockHistory.record(BEER_ID, 20_000, 7);
+        stockHistory.record(BEER_ID, MINUTE + 5_000, 12);
+
+        List<StockHistoryPointDTO> points = stockHistory.query(BEER_ID, 0, HOUR, HistoryResolution.MINUTE);
+
+        assertThat(points, hasSize(2));
+        assertThat(points.get(0), is(new StockHistoryPointDTO(Instant.ofEpochMilli(0), 4, 10, 7)));
+        assertThat(points.get(1), is(new StockHistoryPointDTO(Instant.ofEpochMilli(MINUTE), 12, 12, 12)));
+    }
+
+    @Test
+    void whenSamplesArriveOutOfOrderThenLastKeepsTheNewestQuantity() {
+        stockHistory.record(BEER_ID, 0, 10);
+        stockHistory.record(BEER_ID, 20_000, 7);
+        stockHistory.record(BEER_ID, 10_000, 4);
+        stockHistory.record(BEER_ID, MINUTE + 5_000, 12);
+        stockHistory.record(BEER_ID, 30_000, 1);
+
+        List<StockHistoryPointDTO> minutes = stockHistory.query(BEER_ID, 0, HOUR, HistoryResolution.MINUTE);
+        List<StockHistoryPointDTO> samples = stockHistory.query(BEER_ID, 0, HOUR, HistoryResolution.RAW);
+
+        assertThat(minutes, contains(new StockHistoryPointDTO(Instant.ofEpochMilli(0), 4, 10, 7),
+                new StockHistoryPointDTO(Instant.ofEpochMilli(MINUTE), 12, 12, 12)));
+        assertThat(samples.stream().map(StockHistoryPointDTO::getLast).toList(), contains(10, 7, 12));
+    }
+
+    @Test
+    void whenSamplesSpanHoursThenHourBucketsRollThemUp() {
+        stockHistory.record(BEER_ID, 0, 10);
+        stockHistory.record(BEER_ID, 30 * MINUTE, 2);
+        stockHistory.record(BEER_ID, HOUR + MINUTE, 8);
+
+        List<StockHistoryPointDTO> points = stockHistory.query(BEER_ID, 0, 2 * HOUR, HistoryResolution.HOUR);
+
+        assertThat(points, hasSize(2));
+        assertThat(points.get(0), is(new StockHistoryPointDTO(Instant.ofEpochMilli(0), 2, 10, 2)));
+        assertThat(points.get(1).getLast(), is(8));
+    }
+
+    @Test
+    void whenRawBufferIsFullThenOldestSamplesAreOverwritten() {
+        for (int i = 0; i < 300; i++) {
+            stockHistory.record(BEER_ID, i, i % 100);
+        }
+
+        List<StockHistoryPointDTO> points = stockHistory.query(BEER_ID, 0, Long.MAX_VALUE, HistoryResolution.RAW);
+
+        assertThat(points, hasSize(256));
+        assertThat(points.get(0).getTimestamp(), is(Instant.ofEpochMilli(44)));
+        assertThat(points.get(255).getTimestamp(), is(Instant.ofEpochMilli(299)));
+    }
+
+    @Test
+    void whenRangeIsGivenThenOnlyPointsInsideItAreReturned() {
+        stockHistory.record(BEER_ID, 0, 1);
+        stockHistory.record(BEER_ID, 5 * MINUTE, 2);
+        stockHistory.record(BEER_ID, 10 * MINUTE, 3);
+
+        List<StockHistoryPointDTO> points = stockHistory.query(BEER_ID, MINUTE, 6 * MINUTE, HistoryResolution.MINUTE);
+
+        assertThat(points, hasSize(1));
+        assertThat(points.get(0).getLast(), is(2));
+    }
+
+    @Test
+    void whenBeerHasNoHistoryThenEmptyListIsReturned() {
+        assertThat(stockHistory.query(BEER_ID, 0, HOUR, HistoryResolution.MINUTE), is(empty()));
+    }
+
+    @Test
+    void whenBeerIsRemovedThenLaterSamplesAreDropped() {
+        stockHistory.record(BEER_ID, 0, 10);
+        stockHistory.remove(BEER_ID);
+        stockHistory.record(BEER_ID, MINUTE, 5);
+
+        assertThat(stockHistory.query(BEER_ID, 0, HOUR, HistoryResolution.RAW), is(empty()));
+    }
+}
@@ -0,0 +1,59 @@
+package one.digitalinnovation.beerstock.hot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.dto.HotBeerDTO;
+import one.digitalinnovation.beerstock.dto.HotBeersDTO;
+import one.digitalinnovation.beerstock.enums.HotBeerKind;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HotBeersTest {
+
+    @Test
+    void whenThreadsRecordConcurrentlyThenStripesAreMergedIntoOneRanking() throws Exception {
+        HotBeers hotBeers = new HotBeers(4, 8, 3, Duration.ZERO);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    hotBeers.record(HotBeerKind.ADJUSTED, i % 10 < 5 ? 1L : i % 10 < 8 ? 2L : 3L + i % 50);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        HotBeersDTO hot = hotBeers.top(HotBeerKind.ADJUSTED, 2);
+        assertThat(hot.getEvents(), is(80_000L));
+        assertThat(hot.getBeers().stream().map(HotBeerDTO::getBeerId).toList(), contains(1L, 2L));
+        HotBeerDTO hottest = hot.getBeers().get(0);
+        assertThat(hottest.getCount(), is(greaterThanOrEqualTo(40_000L)));
+        assertThat(hottest.getGuaranteedCount(), is(lessThanOrEqualTo(40_000L)));
+        assertThat(hotBeers.top(HotBeerKind.REQUESTED, 2).getBeers(), is(empty()));
+    }
+
+    @Test
+    void whenBoundToARegistryThenRanksArePublished() throws Exception {
+        HotBeers hotBeers = new HotBeers(1, 8, 2, Duration.ZERO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        hotBeers.bindTo(registry);
+        hotBeers.record(HotBeerKind.REQUESTED, 7L);
+        hotBeers.record(HotBeerKind.REQUESTED, 7L);
+        hotBeers.record(HotBeerKind.REQUESTED, 9L);
+
+        assertThat(registry.get("beerstock.hot.beers.id").tags("kind", "requested", "rank", "1").gauge().value(), is(7.0));
+        assertThat(registry.get("beerstock.hot.beers.count").tags("kind", "requested", "rank", "2").gauge().value(), is(1.0));
+        assertThat(registry.get("beerstock.hot.beers.events").tags("kind", "requested").functionCounter().count(), is(3.0));
+        assertThat(registry.get("beerstock.hot.beers.id").tags("kind", "adjusted", "rank", "1").gauge().value(), is(Double.NaN));
+        assertThrows(InvalidParameterException.class, () -> hotBeers.top(HotBeerKind.REQUESTED, 9));
+    }
+}
@@ -0,0 +1,56 @@
+package one.digitalinnovation.beerstock.hot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SpaceSavingSketchTest {
+
+    private static Map<Long, long[]> counters(SpaceSavingSketch sketch) {
+        Map<Long, long[]> counters = new HashMap<>();
+        sketch.forEach((key, count, error) -> counters.put(key, new long[]{count, error}));
+        return counters;
+    }
+
+    @Test
+    void whenKeysFitInTheCountersThenCountsAreExact() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        for (long key = 1; key <= 4; key++) {
+            for (int i = 0; i < key; i++) {
+                sketch.offer(key, 1);
+            }
+        }
+
+        Map<Long, long[]> counters = counters(sketch);
+        assertThat(counters.keySet(), containsInAnyOrder(1L, 2L, 3L, 4L));
+        assertThat(counters.get(3L), is(new long[]{3, 0}));
+        assertThat(sketch.minCount(), is(1L));
+    }
+
+    @Test
+    void whenStreamIsSkewedThenHeavyHittersAreKeptWithBoundedEstimates() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<Long, Long> actualCounts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(4) == 0 ? random.nextInt(1_000) : random.nextInt(5);
+            actualCounts.merge(key, 1L, Long::sum);
+            sketch.offer(key, 1);
+        }
+
+        Map<Long, long[]> counters = counters(sketch);
+        assertThat(sketch.size(), is(16));
+        assertThat(counters.keySet(), hasItems(0L, 1L, 2L, 3L, 4L));
+        counters.forEach((key, counter) -> {
+            long actualCount = actualCounts.get(key);
+            assertThat(counter[0], is(greaterThanOrEqualTo(actualCount)));
+            assertThat(counter[0] - counter[1], is(lessThanOrEqualTo(actualCount)));
+            assertThat(counter[1], is(lessThanOrEqualTo(sketch.minCount())));
+        });
+    }
+}
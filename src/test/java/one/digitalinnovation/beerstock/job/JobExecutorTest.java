@@ -0,0 +1,163 @@
+package one.digitalinnovation.beerstock.job;
+
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import one.digitalinnovation.beerstock.enums.JobType;
+import one.digitalinnovation.beerstock.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JobExecutorTest {
+
+    private final JobExecutor jobExecutor = new JobExecutor(1, 3, Duration.ofHours(1), Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.close();
+    }
+
+    @Test
+    void whenJobSucceedsThenResultAndProgressAreAvailable() throws Exception {
+        Job job = jobExecutor.submit(JobType.EXPORT, progress -> {
+            progress.setTotal(2);
+            progress.advance();
+            progress.advance();
+            return "done";
+        });
+
+        awaitStatus(job, JobStatus.SUCCEEDED);
+        assertThat(job.getResult(), is("done"));
+        assertThat(job.getProgress().getProcessed(), is(2L));
+        assertThat(job.getProgress().getTotal(), is(2L));
+        assertThat(jobExecutor.find(job.getId()).orElseThrow(), is(sameInstance(job)));
+    }
+
+    @Test
+    void whenJobThrowsThenItFailsWithoutExposingTheMessage() throws Exception {
+        Job job = jobExecutor.submit(JobType.IMPORT, progress -> {
+            throw new IllegalStateException("broken");
+        });
+
+        awaitStatus(job, JobStatus.FAILED);
+        assertThat(job.getError(), is(JobExecutor.FAILURE_MESSAGE));
+        assertThat(job.getResult(), is(nullValue()));
+    }
+
+    @Test
+    void whenJobThrowsAnErrorThenItFailsInsteadOfStayingRunning() throws Exception {
+        Job job = jobExecutor.submit(JobType.IMPORT, progress -> {
+            throw new LinkageError("missing class");
+        });
+
+        awaitStatus(job, JobStatus.FAILED);
+        assertThat(job.getError(), is(JobExecutor.FAILURE_MESSAGE));
+    }
+
+    @Test
+    void whenConcurrencyIsExhaustedThenJobsWaitQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job running = jobExecutor.submit(JobType.EXPORT, progress -> {
+            release.await();
+            return null;
+        });
+        awaitStatus(running, JobStatus.RUNNING);
+
+        Job queued = jobExecutor.submit(JobType.EXPORT, progress -> null);
+        Thread.sleep(50);
+        assertThat(queued.getStatus(), is(JobStatus.QUEUED));
+
+        release.countDown();
+        awaitStatus(queued, JobStatus.SUCCEEDED);
+    }
+
+    @Test
+    void whenRunningJobIsCancelledThenItStopsAtTheNextCheckpoint() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Job job = jobExecutor.submit(JobType.BULK_DELETE, progress -> {
+            started.countDown();
+            while (true) {
+                progress.advance();
+                Thread.onSpinWait();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+        assertThat(job.cancel(), is(true));
+
+        assertThat(job.getStatus(), is(JobStatus.CANCELLED));
+        Job next = jobExecutor.submit(JobType.EXPORT, progress -> "next");
+        awaitStatus(next, JobStatus.SUCCEEDED);
+    }
+
+    @Test
+    void whenQueuedJobsAreCancelledThenTheyNoLongerCountAsPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Job running = jobExecutor.submit(JobType.EXPORT, progress -> {
+            release.await();
+            return null;
+        });
+        for (int round = 0; round < 3; round++) {
+            Job first = jobExecutor.submit(JobType.EXPORT, progress -> null);
+            Job second = jobExecutor.submit(JobType.EXPORT, progress -> null);
+
+            assertThat(first.cancel(), is(true));
+            assertThat(second.cancel(), is(true));
+        }
+
+        assertThat(running.getStatus(), is(not(JobStatus.CANCELLED)));
+        release.countDown();
+        awaitStatus(running, JobStatus.SUCCEEDED);
+    }
+
+    @Test
+    void whenJobIsCancelledBeforeItsFutureIsAttachedThenTheFutureIsCancelled() {
+        Job job = new Job(JobType.EXPORT);
+        assertThat(job.cancel(), is(true));
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        job.attach(future);
+
+        assertThat(future.isCancelled(), is(true));
+    }
+
+    @Test
+    void whenRetentionHasPassedThenFinishedJobsAreEvictedOnLookup() throws Exception {
+        try (JobExecutor shortLivedExecutor = new JobExecutor(1, 3, Duration.ZERO, Duration.ofSeconds(5))) {
+            Job job = shortLivedExecutor.submit(JobType.EXPORT, progress -> "done");
+            awaitStatus(job, JobStatus.SUCCEEDED);
+            Thread.sleep(5);
+
+            assertThat(shortLivedExecutor.find(job.getId()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    void whenTooManyJobsArePendingThenSubmissionIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            jobExecutor.submit(JobType.EXPORT, progress -> {
+                release.await();
+                return null;
+            });
+        }
+
+        assertThrows(ServiceOverloadedException.class, () -> jobExecutor.submit(JobType.EXPORT, progress -> null));
+        release.countDown();
+    }
+
+    private static void awaitStatus(Job job, JobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(job.getStatus(), is(status));
+    }
+}
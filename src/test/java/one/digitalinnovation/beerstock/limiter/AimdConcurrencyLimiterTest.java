@@ -0,0 +1,83 @@
+package one.digitalinnovation.beerstock.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AimdConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void whenLimitIsReachedThenFurtherRequestsAreRejected() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 10, 100, 0.5);
+
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(false));
+
+        limiter.release(FAST);
+        assertThat(limiter.tryAcquire(), is(true));
+    }
+
+    @Test
+    void whenRequestsAreFastThenLimitGrowsUpToMax() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 5, 100, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+
+        assertThat(limiter.getLimit(), is(5));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+
+    @Test
+    void whenRequestsAreSlowThenLimitShrinksDownToMin() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 2, 10, 100, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit(), is(4));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+        assertThat(limiter.getLimit(), is(2));
+    }
+
+    @Test
+    void whenSamplesArriveConcurrentlyThenNoneIsLost() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(1000, 1, 1000, 100, 0.999);
+        for (int i = 0; i < 800; i++) {
+            limiter.tryAcquire();
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 100; i++) {
+                    limiter.release(SLOW);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double expectedLimit = 1000;
+        for (int i = 0; i < 800; i++) {
+            expectedLimit *= 0.999;
+        }
+        assertThat(limiter.getLimit(), is((int) expectedLimit));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+}
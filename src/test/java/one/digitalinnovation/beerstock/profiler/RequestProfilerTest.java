@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.profiler;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerstock-profiler;DB_CLOSE_DELAY=-1",
+        "beerstock.profiler.enabled=true",
+        "beerstock.profiler.max-statements=2",
+        "beerstock.profiler.max-entities-loaded=0",
+        "beerstock.profiler.max-allocated=1GB"
+})
+@AutoConfigureMockMvc
+public class RequestProfilerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RequestProfilesEndpoint requestProfilesEndpoint;
+
+    @Test
+    void whenRequestsExceedTheBudgetThenTheyAreReportedAsOffenders() throws Exception {
+        requestProfilesEndpoint.reset();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Profiled").build().toBeerDTO();
+
+        mockMvc.perform(post("/api/v1/beers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(beerDTO)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/beers/Profiled"))
+                .andExpect(status().isOk());
+
+        RequestProfilesEndpoint.Report report = requestProfilesEndpoint.report();
+        assertThat(report.profiledRequests(), is(2L));
+        assertThat(report.flaggedRequests(), is(1L));
+        assertThat(report.worstOffenders().stream().map(RequestProfileSummary::endpoint).toList(),
+                not(hasItem("POST /api/v1/beers")));
+        RequestProfileSummary findOffender = findOffender(report, "GET /api/v1/beers/{name}");
+        assertThat(findOffender.statementCount(), is(1));
+        assertThat(findOffender.violations(), contains("entities loaded 1 > 0"));
+    }
+
+    @Test
+    void whenSameStatementRepeatsThenPossibleNPlusOneIsFlagged() {
+        RequestProfiler requestProfiler = new RequestProfiler(new RequestProfileBudget(10, 1_000, 100, Long.MAX_VALUE, 3), 2);
+
+        requestProfiler.begin("GET /api/v1/beers");
+        requestProfiler.recordStatement("select * from beer", 1_000);
+        for (int i = 0; i < 3; i++) {
+            requestProfiler.recordStatement("select * from beer where id=?", 1_000);
+            requestProfiler.recordEntityLoaded();
+        }
+        RequestProfile profile = requestProfiler.end();
+
+        assertThat(profile.getStatementCount(), is(4));
+        assertThat(profile.getEntitiesLoaded(), is(3));
+        assertThat(profile.getViolations(), contains(startsWith("possible N+1: statement executed 3 times")));
+        List<RequestProfileSummary> worstOffenders = requestProfiler.worstOffenders();
+        assertThat(worstOffenders, hasSize(1));
+        assertThat(worstOffenders.get(0).severity(), is(1.0));
+    }
+
+    private static RequestProfileSummary findOffender(RequestProfilesEndpoint.Report report, String endpoint) {
+        return report.worstOffenders().stream()
+                .filter(offender -> offender.endpoint().equals(endpoint))
+                .findFirst()
+                .orElseThrow();
+    }
+}
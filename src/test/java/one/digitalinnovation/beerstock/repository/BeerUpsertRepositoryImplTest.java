@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.repository;
+
+import jakarta.persistence.EntityManager;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BeerUpsertRepositoryImplTest {
+
+    private static Beer beer(String name) {
+        return Beer.builder().name(name).brand("Brand").max(50).quantity(3).type(BeerType.LAGER).build();
+    }
+
+    private static PreparedStatement conflictingMerge() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenThrow(new SQLException("Unique index or primary key violation", "23505"));
+        return statement;
+    }
+
+    @Test
+    void whenNameIsCreatedConcurrentlyThenBeersAreMergedOneByOneAndTheConflictIsReported() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(2L);
+        when(resultSet.getString(2)).thenReturn("Not raced");
+        when(resultSet.getInt(3)).thenReturn(3);
+        PreparedStatement merge = mock(PreparedStatement.class);
+        when(merge.executeQuery()).thenReturn(resultSet);
+        PreparedStatement batchMerge = conflictingMerge();
+        PreparedStatement racedMerge = conflictingMerge();
+        PreparedStatement recordChange = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(batchMerge, racedMerge, merge, recordChange);
+        when(connection.setSavepoint()).thenReturn(mock(Savepoint.class));
+        Session session = mock(Session.class);
+        when(session.doReturningWork(any())).thenAnswer(invocation ->
+                invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+        BeerUpsertResult result = new BeerUpsertRepositoryImpl(entityManager)
+                .upsertAll(List.of(beer("Raced"), beer("Not raced")));
+
+        assertThat(result.upsertedBeers(), contains(new BeerUpsertResult.UpsertedBeer(2L, "Not raced", 3)));
+        assertThat(result.failures().keySet(), contains("Raced"));
+        assertThat(result.failures().get("Raced"), containsString("created concurrently"));
+        verify(connection, times(2)).rollback(any(Savepoint.class));
+        verify(recordChange).executeBatch();
+    }
+}
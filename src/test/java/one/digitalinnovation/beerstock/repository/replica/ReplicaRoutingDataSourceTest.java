@@ -0,0 +1,94 @@
+package one.digitalinnovation.beerstock.repository.replica;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerstock-primary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "beerstock.replica.enabled=true",
+        "beerstock.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "beerstock.replica.read-your-writes-window=1m"
+})
+public class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:beerstock-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeEach
+    void setUp() {
+        replicate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientContext.clear();
+    }
+
+    @Test
+    void whenReadOnlyLookupIsMadeThenReplicaIsUsedUntilItCatchesUp() throws Exception {
+        ClientContext.setCurrentClient("writer");
+        beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Replicated").build().toBeerDTO());
+
+        ClientContext.setCurrentClient("reader");
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName("Replicated"));
+
+        replicate();
+
+        assertThat(beerService.findByName("Replicated").getName(), is("Replicated"));
+    }
+
+    @Test
+    void whenClientWroteRecentlyThenItReadsItsOwnWritesFromPrimary() throws Exception {
+        ClientContext.setCurrentClient("writer");
+        BeerDTO createdBeer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Fresh").build().toBeerDTO());
+
+        assertThat(beerService.findByName("Fresh").getId(), is(createdBeer.getId()));
+    }
+
+    @Test
+    void whenClientOnlyReadsFromPrimaryThenItIsNotTreatedAsAWriter() throws Exception {
+        ClientContext.setCurrentClient("poller");
+
+        beerService.changes("0", 10);
+        assertThrows(BeerNotFoundException.class, () -> beerService.increment(Long.MAX_VALUE, 1));
+
+        assertThat(readYourWritesTracker.wroteRecently("poller"), is(false));
+    }
+
+    /**
+     * Stand-in replicator: copies the whole primary database into the replica.
+     */
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
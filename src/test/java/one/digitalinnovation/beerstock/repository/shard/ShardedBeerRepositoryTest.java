@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.repository.shard;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.StockLocationsDisabledException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerUpsertResult;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "beerstock.sharding.enabled=true",
+        "beerstock.locations.enabled=false",
+        "beerstock.sharding.id-range-size=1000",
+        "beerstock.sharding.shards[0].url=jdbc:h2:mem:beerstock-shard0;DB_CLOSE_DELAY=-1",
+        "beerstock.sharding.shards[1].url=jdbc:h2:mem:beerstock-shard1;DB_CLOSE_DELAY=-1",
+        "beerstock.sharding.shards[2].url=jdbc:h2:mem:beerstock-shard2;DB_CLOSE_DELAY=-1"
+})
+public class ShardedBeerRepositoryTest {
+
+    private static final long ID_RANGE_SIZE = 1000L;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Test
+    void whenBeersAreCreatedThenTheyAreSpreadAcrossShardsAndFoundAgain() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Sharded " + i).build().toBeerDTO());
+        }
+
+        List<BeerDTO> allBeers = beerService.listAll();
+        List<BeerDTO> shardedBeers = allBeers.stream().filter(beer -> beer.getName().startsWith("Sharded ")).toList();
+        assertThat(shardedBeers, hasSize(12));
+
+        Set<Long> usedShards = shardedBeers.stream()
+                .map(beer -> (beer.getId() - 1) / ID_RANGE_SIZE)
+                .collect(Collectors.toSet());
+        assertThat(usedShards.size(), greaterThan(1));
+        assertThat(beerRepository.count(), is((long) allBeers.size()));
+        assertThat(beerRepository.findAllById(shardedBeers.stream().map(BeerDTO::getId).toList()), hasSize(12));
+        assertThat(beerService.search("Ambev", null).size(), is(greaterThanOrEqualTo(12)));
+
+        BeerDTO foundBeer = beerService.findByName("Sharded 7");
+        assertThat(foundBeer.getId(), is(notNullValue()));
+
+        assertThrows(StockLocationsDisabledException.class,
+                () -> beerService.setLocationCapacity(foundBeer.getId(), "taproom", 1));
+
+        BeerDTO incrementedBeer = beerService.increment(foundBeer.getId(), 5);
+        assertThat(incrementedBeer.getQuantity(), is(foundBeer.getQuantity() + 5));
+
+        beerService.deleteById(foundBeer.getId());
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName("Sharded 7"));
+        assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(foundBeer.getId()));
+
+        BeerChangesDTO changes = beerService.changes("0", 1000);
+        assertThat(changes.getToken().split("\\."), arrayWithSize(3));
+        assertThat(changes.getBeers().stream().map(BeerDTO::getName).toList(),
+                allOf(hasItem("Sharded 0"), not(hasItem("Sharded 7"))));
+        assertThat(changes.getDeletedIds(), contains(foundBeer.getId()));
+    }
+
+    @Test
+    void whenBeersAreUpsertedThenEachShardWritesItsOwn() {
+        List<BeerDTO> beers = IntStream.range(0, 6)
+                .mapToObj(i -> BeerDTOBuilder.builder().id(null).name("Upserted " + i).build().toBeerDTO())
+                .toList();
+
+        BulkOperationResultDTO result = beerService.upsert(beers);
+
+        assertThat(result.getSucceeded(), is(6));
+        assertThat(beerRepository.findByName("Upserted 3").isPresent(), is(true));
+    }
+
+    @Test
+    void whenAShardFailsDuringAnUpsertThenOnlyItsBeersAreReportedAsFailed() {
+        BeerShard failingShard = mock(BeerShard.class);
+        BeerShard workingShard = mock(BeerShard.class);
+        when(failingShard.getIndex()).thenReturn(0);
+        when(workingShard.getIndex()).thenReturn(1);
+        when(failingShard.execute(any())).thenThrow(new IllegalStateException("shard down"));
+        when(workingShard.execute(any())).thenAnswer(invocation -> new BeerUpsertResult(
+                List.of(new BeerUpsertResult.UpsertedBeer(1001L, "a", 10)), Map.of()));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ShardedBeerRepository repository = new ShardedBeerRepository(List.of(failingShard, workingShard),
+                    new ShardDirectory(), ID_RANGE_SIZE, executor);
+            // "a".hashCode() is odd and "b".hashCode() is even
+            BeerUpsertResult result = repository.upsertAll(List.of(Beer.builder().name("a").build(),
+                    Beer.builder().name("b").build()));
+
+            assertThat(result.upsertedBeers().stream().map(BeerUpsertResult.UpsertedBeer::name).toList(), contains("a"));
+            assertThat(result.failures().get("b"), containsString("shard down"));
+        }
+    }
+}
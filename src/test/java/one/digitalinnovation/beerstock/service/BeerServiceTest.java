@@ -1,24 +1,42 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.catalog.ColumnarCatalog;
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import one.digitalinnovation.beerstock.config.LocationStockProperties;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerLocationStockRepository;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.replica.ClientContext;
+import one.digitalinnovation.beerstock.repository.replica.ReadYourWritesTracker;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings; // Adicionar esta
 import org.mockito.quality.Strictness; // Adicionar esta
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -38,6 +56,21 @@ public class BeerServiceTest {
     @Mock
     private BeerMapper beerMapper;
 
+    @Mock
+    private ColumnarCatalog columnarCatalog;
+
+    @Mock
+    private BeerLocationStockRepository beerLocationStockRepository;
+
+    @Spy
+    private LocationStockProperties locationStockProperties = new LocationStockProperties();
+
+    @Spy
+    private ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+
+    @Spy
+    private ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(Duration.ZERO);
+
     @InjectMocks
     private BeerService beerService;
 
@@ -63,7 +96,7 @@ public class BeerServiceTest {
         when(beerMapper.toModel(expectedBeerDTO)).thenReturn(expectedSavedBeer);
         when(beerMapper.toDTO(expectedSavedBeer)).thenReturn(expectedBeerDTO);
         when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.empty());
-        when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
+        when(beerRepository.create(expectedSavedBeer)).thenReturn(expectedSavedBeer);
 
         BeerDTO createdBeerDTO = beerService.createBeer(expectedBeerDTO);
 
@@ -79,9 +112,12 @@ public class BeerServiceTest {
         Beer duplicatedBeer = createBeerFromDTO(expectedBeerDTO);
         
         when(beerMapper.toModel(expectedBeerDTO)).thenReturn(duplicatedBeer);
-        when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.of(duplicatedBeer));
+        when(beerRepository.create(duplicatedBeer)).thenThrow(new DataIntegrityViolationException("duplicate name",
+                new ConstraintViolationException("duplicate name", new SQLException(),
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "UK_BEER_NAME")));
 
         assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
+        verify(beerRepository, never()).findByName(expectedBeerDTO.getName());
     }
 
     @Test
@@ -99,6 +135,41 @@ public class BeerServiceTest {
         assertThat(foundBeerDTO, is(equalTo(expectedBeerDTO)));
     }
 
+    @Test
+    void whenClientWroteRecentlyThenItsLookupDoesNotJoinAnotherClientsFlight() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = createBeerFromDTO(expectedBeerDTO);
+        when(beerMapper.toDTO(expectedBeer)).thenReturn(expectedBeerDTO);
+        CountDownLatch firstLookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstLookup = new CountDownLatch(1);
+        when(beerRepository.findByName(expectedBeer.getName())).thenAnswer(invocation -> {
+            if (firstLookupStarted.getCount() > 0) {
+                firstLookupStarted.countDown();
+                releaseFirstLookup.await();
+            }
+            return Optional.of(expectedBeer);
+        });
+        doReturn(true).when(readYourWritesTracker).wroteRecently("writer");
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<BeerDTO> otherLookup = executor.submit(() -> beerService.findByName(expectedBeer.getName()));
+            assertThat(firstLookupStarted.await(5, TimeUnit.SECONDS), is(true));
+
+            Future<BeerDTO> writerLookup = executor.submit(() -> {
+                ClientContext.setCurrentClient("writer");
+                try {
+                    return beerService.findByName(expectedBeer.getName());
+                } finally {
+                    ClientContext.clear();
+                }
+            });
+
+            assertThat(writerLookup.get(5, TimeUnit.SECONDS), is(equalTo(expectedBeerDTO)));
+            releaseFirstLookup.countDown();
+            assertThat(otherLookup.get(5, TimeUnit.SECONDS), is(equalTo(expectedBeerDTO)));
+        }
+    }
+
     @Test
     void whenNotRegisteredBeerNameIsGivenThenThrowException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -135,13 +206,19 @@ public class BeerServiceTest {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = createBeerFromDTO(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        doNothing().when(beerRepository).deleteById(expectedBeerDTO.getId());
+        when(beerRepository.deleteBeerById(expectedBeerDTO.getId())).thenReturn(1);
 
         beerService.deleteById(expectedBeerDTO.getId());
 
-        verify(beerRepository, times(1)).findById(expectedBeerDTO.getId());
-        verify(beerRepository, times(1)).deleteById(expectedBeerDTO.getId());
+        verify(beerRepository, never()).findById(expectedBeerDTO.getId());
+        verify(beerRepository, times(1)).deleteBeerById(expectedBeerDTO.getId());
+    }
+
+    @Test
+    void whenExclusionCalledWithInvalidIdThenExceptionIsThrown() {
+        when(beerRepository.deleteBeerById(INVALID_BEER_ID)).thenReturn(0);
+
+        assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(INVALID_BEER_ID));
     }
 
     @Test
@@ -151,7 +228,7 @@ public class BeerServiceTest {
         Beer initialBeer = createBeerFromDTO(initialBeerDTO);
 
         when(beerRepository.findById(initialBeerDTO.getId())).thenReturn(Optional.of(initialBeer));
-        when(beerRepository.save(any(Beer.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(beerRepository.compareAndSetQuantity(anyLong(), anyInt(), anyInt())).thenReturn(1);
 
         int quantityToIncrement = 10;
         int expectedQuantity = initialBeer.getQuantity() + quantityToIncrement;
@@ -165,6 +242,24 @@ public class BeerServiceTest {
         assertThat(incremented.getQuantity(), lessThan(initialBeerDTO.getMax()));
     }
 
+    @Test
+    void whenIncrementIsWrittenThenTheWriteIsRecordedForTheClientThatMadeIt() throws Exception {
+        BeerDTO initialBeerDTO = BeerDTOBuilder.builder().quantity(10).max(50).build().toBeerDTO();
+        Beer initialBeer = createBeerFromDTO(initialBeerDTO);
+        when(beerRepository.findById(initialBeerDTO.getId())).thenReturn(Optional.of(initialBeer));
+        when(beerRepository.compareAndSetQuantity(anyLong(), anyInt(), anyInt())).thenReturn(1);
+        when(beerMapper.toDTO(any(Beer.class))).thenReturn(initialBeerDTO);
+
+        ClientContext.setCurrentClient("adjuster");
+        try {
+            beerService.increment(initialBeerDTO.getId(), 5);
+        } finally {
+            ClientContext.clear();
+        }
+
+        verify(readYourWritesTracker).recordWrite("adjuster");
+    }
+
     @Test
     void whenIncrementExceedsMaxThenThrowException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(45).max(50).build().toBeerDTO();
@@ -188,7 +283,7 @@ public class BeerServiceTest {
         Beer initialBeer = createBeerFromDTO(initialBeerDTO);
 
         when(beerRepository.findById(initialBeerDTO.getId())).thenReturn(Optional.of(initialBeer));
-        when(beerRepository.save(any(Beer.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(beerRepository.compareAndSetQuantity(anyLong(), anyInt(), anyInt())).thenReturn(1);
 
         int quantityToDecrement = 5;
         int expectedQuantity = initialBeer.getQuantity() - quantityToDecrement;
@@ -208,7 +303,7 @@ public class BeerServiceTest {
         Beer expectedBeer = createBeerFromDTO(expectedBeerDTO);
 
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(any(Beer.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(beerRepository.compareAndSetQuantity(anyLong(), anyInt(), anyInt())).thenReturn(1);
 
         int quantityToDecrement = expectedBeerDTO.getQuantity();
         int expectedQuantity = 0;
@@ -237,4 +332,39 @@ public class BeerServiceTest {
 
         assertThrows(BeerNotFoundException.class, () -> beerService.decrement(INVALID_BEER_ID, 5));
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenRowChangedConcurrentlyThenAdjustmentIsEvaluatedAgainOnFreshState() throws BeerNotFoundException, BeerStockExceededException {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(10).max(50).build().toBeerDTO();
+        Beer staleBeer = createBeerFromDTO(expectedBeerDTO);
+        Beer freshBeer = createBeerFromDTO(expectedBeerDTO);
+        freshBeer.setQuantity(48);
+
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(staleBeer), Optional.of(freshBeer));
+        when(beerRepository.compareAndSetQuantity(eq(expectedBeerDTO.getId()), eq(10), eq(15))).thenReturn(0);
+
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(expectedBeerDTO.getId(), 5));
+        verify(beerRepository, times(2)).findById(expectedBeerDTO.getId());
+        verify(beerRepository, never()).compareAndSetQuantity(eq(expectedBeerDTO.getId()), eq(48), eq(53));
+    }
+
+    @Test
+    void whenSearchIsCalledWithoutColumnarCatalogThenRepositoryFilterIsUsed() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = createBeerFromDTO(expectedBeerDTO);
+
+        when(beerRepository.findByFilter(expectedBeerDTO.getBrand(), BeerType.LAGER)).thenReturn(List.of(expectedBeer));
+        when(beerMapper.toDTO(expectedBeer)).thenReturn(expectedBeerDTO);
+
+        List<BeerDTO> foundList = beerService.search(expectedBeerDTO.getBrand(), BeerType.LAGER);
+
+        assertThat(foundList, contains(expectedBeerDTO));
+    }
+
+    @Test
+    void whenRestockPlanIsRequestedWithInvalidRatioThenThrowException() {
+        assertThrows(InvalidParameterException.class, () -> beerService.restockPlan(0, 100));
+        assertThrows(InvalidParameterException.class, () -> beerService.restockPlan(1.5, 100));
+        assertThrows(InvalidParameterException.class, () -> beerService.restockPlan(0.8, 0));
+    }
+}
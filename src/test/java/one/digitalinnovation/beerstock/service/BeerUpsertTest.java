@@ -0,0 +1,76 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:beerstock-upsert;DB_CLOSE_DELAY=-1")
+public class BeerUpsertTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    private static BeerDTO beer(String name, int max, int quantity, BeerType type) {
+        return BeerDTOBuilder.builder().id(null).name(name).max(max).quantity(quantity).type(type).build().toBeerDTO();
+    }
+
+    @Test
+    void whenBeerIsCreatedTwiceOrDeletedTwiceThenConstraintAndRowCountAreReported() throws Exception {
+        Long id = beerService.createBeer(beer("Written once", 50, 10, BeerType.LAGER)).getId();
+
+        assertThrows(BeerAlreadyRegisteredException.class,
+                () -> beerService.createBeer(beer("Written once", 50, 10, BeerType.LAGER)));
+        beerService.deleteById(id);
+        assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(id));
+    }
+
+    @Test
+    void whenBeersAreUpsertedThenNewNamesAreCreatedAndExistingOnesUpdated() throws Exception {
+        Long existingId = beerService.createBeer(beer("Upserted", 50, 10, BeerType.LAGER)).getId();
+        Long locatedId = beerService.createBeer(beer("Upserted at location", 50, 10, BeerType.LAGER)).getId();
+        beerService.setLocationCapacity(locatedId, "taproom", 30);
+
+        BulkOperationResultDTO result = beerService.upsert(List.of(
+                beer("Upserted", 80, 20, BeerType.IPA),
+                beer("Upserted new", 40, 5, BeerType.STOUT),
+                beer("Upserted at location", 40, 20, BeerType.LAGER)));
+
+        assertThat(result.getSucceeded(), is(2));
+        assertThat(result.getFailures(), contains(startsWith("Upserted at location:")));
+        BeerDTO updated = beerService.findByName("Upserted");
+        assertThat(updated, is(new BeerDTO(existingId, "Upserted", updated.getBrand(), 80, 20, BeerType.IPA)));
+        assertThat(beerService.findByName("Upserted new").getQuantity(), is(5));
+        assertThat(beerService.findByName("Upserted at location").getMax(), is(50));
+    }
+
+    @Test
+    void whenBeerWithLocationStockIsUpsertedThenTheQuantityIsTakenAsTheAggregate() throws Exception {
+        Long id = beerService.createBeer(beer("Upserted with stock", 50, 10, BeerType.LAGER)).getId();
+        beerService.setLocationCapacity(id, "taproom", 30);
+        beerService.incrementAtLocation(id, "taproom", 10);
+
+        BulkOperationResultDTO result = beerService.upsert(List.of(beer("Upserted with stock", 50, 25, BeerType.LAGER)));
+
+        assertThat(result.getSucceeded(), is(1));
+        assertThat(beerService.findByName("Upserted with stock").getQuantity(), is(25));
+        assertThat(beerService.locations(id).getUnassignedQuantity(), is(15));
+        assertThat(beerService.locations(id).getLocations().get(0).getQuantity(), is(10));
+
+        result = beerService.upsert(List.of(beer("Upserted with stock", 50, 5, BeerType.LAGER)));
+
+        assertThat(result.getFailures(), contains(startsWith("Upserted with stock:")));
+        assertThat(beerService.findByName("Upserted with stock").getQuantity(), is(25));
+    }
+}
@@ -0,0 +1,122 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:beerstock-changes;DB_CLOSE_DELAY=-1",
+        "beerstock.changes.settle-time=2s"
+})
+public class ChangeFeedTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long createBeer(String name) throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name(name).max(50).quantity(10).build().toBeerDTO();
+        return beerService.createBeer(beerDTO).getId();
+    }
+
+    @Test
+    void whenBeersAreWrittenThenOnlyChangesAfterTheTokenAreReturned() throws Exception {
+        Long unchanged = createBeer("Unchanged");
+        Long adjusted = createBeer("Adjusted");
+        Long located = createBeer("Located");
+        Long deleted = createBeer("Deleted");
+        String token = beerService.changes("0", 1000).getToken();
+
+        beerService.increment(adjusted, 5);
+        beerService.setLocationCapacity(located, "taproom", 10);
+        beerService.incrementAtLocation(located, "taproom", 3);
+        beerService.deleteById(deleted);
+        Long created = createBeer("Created");
+
+        BeerChangesDTO changes = beerService.changes(token, 1000);
+        assertThat(changes.getBeers().stream().map(BeerDTO::getId).toList(), contains(adjusted, located, created));
+        assertThat(changes.getBeers().get(0).getQuantity(), is(15));
+        assertThat(changes.getBeers().get(1).getQuantity(), is(13));
+        assertThat(changes.getDeletedIds(), contains(deleted));
+        assertThat(changes.getBeers().stream().map(BeerDTO::getId).toList(), not(hasItem(unchanged)));
+        assertThat(changes.isHasMore(), is(false));
+
+        BeerChangesDTO noChanges = beerService.changes(changes.getToken(), 1000);
+        assertThat(noChanges.getBeers(), is(empty()));
+        assertThat(noChanges.getDeletedIds(), is(empty()));
+        assertThat(noChanges.getToken(), is(changes.getToken()));
+    }
+
+    @Test
+    void whenLimitIsReachedThenTheRestFollowsFromTheReturnedToken() throws Exception {
+        String token = beerService.changes("0", 1000).getToken();
+        Long first = createBeer("First page");
+        Long second = createBeer("Second page");
+
+        BeerChangesDTO firstPage = beerService.changes(token, 1);
+        assertThat(firstPage.getBeers().stream().map(BeerDTO::getId).toList(), contains(first));
+        assertThat(firstPage.isHasMore(), is(true));
+
+        BeerChangesDTO secondPage = beerService.changes(firstPage.getToken(), 1);
+        assertThat(secondPage.getBeers().stream().map(BeerDTO::getId).toList(), contains(second));
+    }
+
+    @Test
+    void whenTokenOrLimitIsInvalidThenTheyAreRejected() {
+        assertThrows(InvalidParameterException.class, () -> beerService.changes("-1", 10));
+        assertThrows(InvalidParameterException.class, () -> beerService.changes("1.2", 10));
+        assertThrows(InvalidParameterException.class, () -> beerService.changes("0", 0));
+        assertThrows(InvalidParameterException.class, () -> beerService.changes("0", 1001));
+    }
+
+    @Test
+    void whenAWriteRollsBackThenItsSequenceIsSteppedOverOnceTheNextChangeHasSettled() throws Exception {
+        String token = beerService.changes("0", 1000).getToken();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                createBeer("Rolled back");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+        Long created = createBeer("After rollback");
+
+        BeerChangesDTO unsettled = beerService.changes(token, 1000);
+        assertThat(unsettled.getBeers(), is(empty()));
+        assertThat(unsettled.getToken(), is(token));
+
+        Thread.sleep(2500);
+        BeerChangesDTO settled = beerService.changes(token, 1000);
+        assertThat(settled.getBeers().stream().map(BeerDTO::getId).toList(), contains(created));
+    }
+
+    @Test
+    void whenABeerChangesSeveralTimesThenItIsReportedOnceAndCompactionKeepsItsLatestChange() throws Exception {
+        String token = beerService.changes("0", 1000).getToken();
+        Long adjusted = createBeer("Adjusted twice");
+        beerService.increment(adjusted, 1);
+        beerService.increment(adjusted, 1);
+
+        BeerChangesDTO changes = beerService.changes(token, 1000);
+        assertThat(changes.getBeers().stream().map(BeerDTO::getId).toList(), contains(adjusted));
+        assertThat(changes.getBeers().get(0).getQuantity(), is(12));
+
+        Thread.sleep(2500);
+        beerService.compactChanges();
+        BeerChangesDTO compacted = beerService.changes(token, 1000);
+        assertThat(compacted.getBeers().stream().map(BeerDTO::getId).toList(), contains(adjusted));
+        assertThat(compacted.getToken(), is(changes.getToken()));
+    }
+}
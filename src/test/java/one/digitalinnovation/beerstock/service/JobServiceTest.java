@@ -0,0 +1,124 @@
+package one.digitalinnovation.beerstock.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BulkOperationResultDTO;
+import one.digitalinnovation.beerstock.dto.JobDTO;
+import one.digitalinnovation.beerstock.enums.JobStatus;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.InvalidParameterException;
+import one.digitalinnovation.beerstock.exception.JobNotFoundException;
+import one.digitalinnovation.beerstock.exception.JobResultNotAvailableException;
+import one.digitalinnovation.beerstock.job.JobExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JobServiceTest {
+
+    @Mock
+    private BeerService beerService;
+
+    private final JobExecutor jobExecutor = new JobExecutor(2, 10, Duration.ofHours(1), Duration.ofSeconds(5));
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private JobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new JobService(beerService, jobExecutor, validator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.close();
+    }
+
+    @Test
+    void whenImportJobRunsThenInvalidAndDuplicatedBeersAreReportedAsFailures() throws Exception {
+        BeerDTO validBeer = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO duplicatedBeer = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        BeerDTO invalidBeer = BeerDTOBuilder.builder().id(3L).name("Bohemia").quantity(200).build().toBeerDTO();
+        lenient().when(beerService.createBeer(duplicatedBeer)).thenThrow(new BeerAlreadyRegisteredException("Skol"));
+
+        JobDTO submittedJob = jobService.submitImport(List.of(validBeer, duplicatedBeer, invalidBeer));
+        JobDTO finishedJob = awaitFinished(submittedJob.getId());
+
+        assertThat(finishedJob.getStatus(), is(JobStatus.SUCCEEDED));
+        assertThat(finishedJob.getProcessed(), is(3L));
+        BulkOperationResultDTO result = (BulkOperationResultDTO) jobService.result(submittedJob.getId());
+        assertThat(result.getSucceeded(), is(1));
+        assertThat(result.getFailed(), is(2));
+        assertThat(result.getFailures(), contains(startsWith("Skol:"), startsWith("Bohemia: quantity")));
+        verify(beerService).createBeer(validBeer);
+        verify(beerService, never()).createBeer(invalidBeer);
+    }
+
+    @Test
+    void whenBulkDeleteJobRunsThenUnknownIdsAreReportedAsFailures() throws Exception {
+        lenient().doThrow(new BeerNotFoundException(999L)).when(beerService).deleteById(999L);
+
+        JobDTO submittedJob = jobService.submitBulkDelete(List.of(1L, 999L));
+        awaitFinished(submittedJob.getId());
+
+        BulkOperationResultDTO result = (BulkOperationResultDTO) jobService.result(submittedJob.getId());
+        assertThat(result.getSucceeded(), is(1));
+        assertThat(result.getFailures(), contains(startsWith("999:")));
+    }
+
+    @Test
+    void whenJobIsStillRunningThenResultIsNotAvailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(beerService.listAll()).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        JobDTO submittedJob = jobService.submitExport();
+
+        assertThrows(JobResultNotAvailableException.class, () -> jobService.result(submittedJob.getId()));
+        release.countDown();
+        assertThat(awaitFinished(submittedJob.getId()).getStatus(), is(JobStatus.SUCCEEDED));
+    }
+
+    @Test
+    void whenRestockPlanJobHasInvalidParametersThenItIsRejectedBeforeSubmission() {
+        assertThrows(InvalidParameterException.class, () -> jobService.submitRestockPlan(0, 500));
+    }
+
+    @Test
+    void whenUnknownJobIsRequestedThenAnExceptionShouldBeThrown() {
+        assertThrows(JobNotFoundException.class, () -> jobService.findById(UUID.randomUUID()));
+    }
+
+    private JobDTO awaitFinished(UUID id) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        JobDTO job = jobService.findById(id);
+        while (!job.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = jobService.findById(id);
+        }
+        return job;
+    }
+}
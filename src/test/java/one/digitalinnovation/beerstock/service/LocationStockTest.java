@@ -0,0 +1,158 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLocationsDTO;
+import one.digitalinnovation.beerstock.dto.LocationStockDTO;
+import one.digitalinnovation.beerstock.dto.RestockLineDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.enums.BeerField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.StockLocationNotFoundException;
+import one.digitalinnovation.beerstock.repository.BeerLocationStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:beerstock-locations;DB_CLOSE_DELAY=-1")
+public class LocationStockTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerLocationStockRepository beerLocationStockRepository;
+
+    private Long createBeer(String name, int max, int quantity) throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name(name).max(max).quantity(quantity).build().toBeerDTO();
+        return beerService.createBeer(beerDTO).getId();
+    }
+
+    @Test
+    void whenStockIsHeldAtLocationsThenViewsReportTheAggregate() throws Exception {
+        Long id = createBeer("Located", 100, 10);
+        beerService.setLocationCapacity(id, "warehouse", 60);
+        beerService.setLocationCapacity(id, "taproom", 20);
+
+        LocationStockDTO warehouse = beerService.incrementAtLocation(id, "warehouse", 50);
+        beerService.incrementAtLocation(id, "taproom", 5);
+
+        assertThat(warehouse.getQuantity(), is(50));
+        assertThat(beerService.findByName("Located").getQuantity(), is(65));
+        assertThat(beerService.listAll().stream().filter(beer -> beer.getId().equals(id)).findFirst().orElseThrow()
+                .getQuantity(), is(65));
+        BeerLocationsDTO locations = beerService.locations(id);
+        assertThat(locations.getQuantity(), is(65));
+        assertThat(locations.getUnassignedQuantity(), is(10));
+        assertThat(locations.getUnassignedCapacity(), is(20));
+        assertThat(locations.getLocations().stream().map(LocationStockDTO::getLocation).toList(),
+                contains("taproom", "warehouse"));
+        assertThat(beerService.increment(id, 5).getQuantity(), is(70));
+
+        BeerDTO sparse = beerService.findByName("Located", EnumSet.of(BeerField.ID, BeerField.QUANTITY));
+        assertThat(sparse, is(new BeerDTO(id, null, null, null, 70, null)));
+        List<Long> foundIds = new ArrayList<>();
+        assertThat(beerService.findByName("Located", BeerField.parseWithId("quantity"), foundIds::add),
+                is(new BeerDTO(null, null, null, null, 70, null)));
+        assertThat(foundIds, contains(id));
+        assertThat(beerService.search(null, BeerType.LAGER, EnumSet.of(BeerField.QUANTITY)),
+                hasItem(new BeerDTO(null, null, null, null, 70, null)));
+    }
+
+    @Test
+    void whenAdjustmentsWouldExceedTheAggregateMaxThenTheyAreRejected() throws Exception {
+        Long id = createBeer("Capped", 50, 30);
+
+        assertThrows(BeerStockExceededException.class, () -> beerService.setLocationCapacity(id, "taproom", 25));
+        beerService.setLocationCapacity(id, "taproom", 20);
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(id, 1));
+        assertThrows(BeerStockExceededException.class, () -> beerService.incrementAtLocation(id, "taproom", 21));
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrementAtLocation(id, "taproom", 1));
+        assertThrows(StockLocationNotFoundException.class, () -> beerService.incrementAtLocation(id, "cellar", 1));
+
+        beerService.incrementAtLocation(id, "taproom", 15);
+        assertThrows(BeerStockExceededException.class, () -> beerService.setLocationCapacity(id, "taproom", 10));
+        assertThat(beerService.locations(id).getLocations().get(0).getCapacity(), is(20));
+        beerService.setLocationCapacity(id, "taproom", 15);
+        assertThat(beerService.locations(id).getUnassignedCapacity(), is(35));
+    }
+
+    @Test
+    void whenLocationIsCreatedConcurrentlyThenBothCallsSucceed() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Long id = createBeer("Raced location " + round, 100, 0);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<LocationStockDTO>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+                for (int capacity : new int[]{10, 20}) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return beerService.setLocationCapacity(id, "taproom", capacity);
+                    }));
+                }
+                start.countDown();
+                for (Future<LocationStockDTO> result : results) {
+                    result.get();
+                }
+            }
+
+            BeerLocationsDTO locations = beerService.locations(id);
+            assertThat(locations.getLocations(), hasSize(1));
+            assertThat(locations.getUnassignedCapacity(), is(100 - locations.getLocations().get(0).getCapacity()));
+        }
+    }
+
+    @Test
+    void whenStockIsTransferredThenTheAggregateIsUnchanged() throws Exception {
+        Long id = createBeer("Transferred", 100, 0);
+        beerService.setLocationCapacity(id, "warehouse", 50);
+        beerService.setLocationCapacity(id, "taproom", 10);
+        beerService.incrementAtLocation(id, "warehouse", 40);
+
+        BeerLocationsDTO locations = beerService.transfer(id, "warehouse", "taproom", 8);
+
+        assertThat(locations.getQuantity(), is(40));
+        assertThat(locations.getLocations().stream().map(LocationStockDTO::getQuantity).toList(), contains(8, 32));
+        assertThrows(BeerStockExceededException.class, () -> beerService.transfer(id, "warehouse", "taproom", 5));
+        beerService.incrementAtLocation(id, "warehouse", 13);
+        assertThrows(BeerStockExceededException.class, () -> beerService.transfer(id, "taproom", "warehouse", 8));
+        assertThat(beerService.locations(id).getLocations().stream().map(LocationStockDTO::getQuantity).toList(),
+                contains(8, 45));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItsLocationsAreDeleted() throws Exception {
+        Long id = createBeer("Removed", 100, 0);
+        beerService.setLocationCapacity(id, "warehouse", 50);
+
+        beerService.deleteById(id);
+
+        assertThat(beerLocationStockRepository.findByBeerIdOrderByLocation(id), is(empty()));
+    }
+
+    @Test
+    void whenRestockIsPlannedWithoutTheColumnarCatalogThenLocationStockCounts() throws Exception {
+        Long id = createBeer("Planned with stock", 100, 10);
+        beerService.setLocationCapacity(id, "cellar", 40);
+        beerService.incrementAtLocation(id, "cellar", 30);
+
+        RestockPlanDTO plan = beerService.restockPlan(0.5, 500);
+
+        assertThat(plan.getOrders().stream().flatMap(order -> order.getLines().stream())
+                .filter(line -> line.getBeerId().equals(id))
+                .mapToInt(RestockLineDTO::getQuantity).sum(), is(10));
+    }
+}
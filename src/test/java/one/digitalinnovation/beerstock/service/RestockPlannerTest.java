@@ -0,0 +1,113 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.catalog.CatalogSnapshot;
+import one.digitalinnovation.beerstock.catalog.ColumnarCatalog;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.RestockOrderDTO;
+import one.digitalinnovation.beerstock.dto.RestockPlanDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.repository.BeerLocationStockRepository;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RestockPlannerTest {
+
+    private final RestockPlanner restockPlanner = new RestockPlanner();
+
+    private static CatalogSnapshot snapshotOf(List<Beer> beers) {
+        BeerRepository beerRepository = mock(BeerRepository.class);
+        when(beerRepository.findAll()).thenReturn(beers);
+        ColumnarCatalog columnarCatalog = new ColumnarCatalog(beerRepository, mock(BeerLocationStockRepository.class), true);
+        columnarCatalog.rebuild();
+        return columnarCatalog.snapshot();
+    }
+
+    private static Consumer<Consumer<BeerDTO>> streamOf(List<Beer> beers) {
+        return action -> beers.forEach(beer -> action.accept(new BeerDTO(beer.getId(), beer.getName(), beer.getBrand(),
+                beer.getMax(), beer.getQuantity(), beer.getType())));
+    }
+
+    private static Beer beer(long id, String brand, BeerType type, int max, int quantity) {
+        return Beer.builder().id(id).name("Beer " + id).brand(brand).max(max).quantity(quantity).type(type).build();
+    }
+
+    @Test
+    void whenBeersAreBelowTargetThenOrdersAreGroupedByBrandAndType() {
+        CatalogSnapshot snapshot = snapshotOf(List.of(
+                beer(1L, "Ambev", BeerType.LAGER, 100, 10),
+                beer(2L, "Ambev", BeerType.LAGER, 100, 90),
+                beer(3L, "Ambev", BeerType.IPA, 50, 0),
+                beer(4L, "Colorado", BeerType.IPA, 10, 2)));
+
+        RestockPlanDTO plan = restockPlanner.plan(snapshot, 0.8, 500);
+
+        assertThat(plan.getOrders(), hasSize(3));
+        RestockOrderDTO ambevLager = plan.getOrders().get(0);
+        assertThat(ambevLager.getBrand(), is("Ambev"));
+        assertThat(ambevLager.getType(), is(BeerType.LAGER));
+        assertThat(ambevLager.getLines(), hasSize(1));
+        assertThat(ambevLager.getLines().get(0).getQuantity(), is(70));
+        RestockOrderDTO ambevIpa = plan.getOrders().get(1);
+        assertThat(ambevIpa.getType(), is(BeerType.IPA));
+        assertThat(ambevIpa.getTotalQuantity(), is(40));
+        assertThat(plan.getOrders().get(2).getTotalQuantity(), is(6));
+        assertThat(plan.getTotalQuantity(), is(116));
+    }
+
+    @Test
+    void whenGroupExceedsOrderLimitThenItIsSplitIntoSeveralOrders() {
+        CatalogSnapshot snapshot = snapshotOf(List.of(
+                beer(1L, "Ambev", BeerType.LAGER, 100, 0),
+                beer(2L, "Ambev", BeerType.LAGER, 100, 50)));
+
+        RestockPlanDTO plan = restockPlanner.plan(snapshot, 1.0, 60);
+
+        assertThat(plan.getOrders().stream().map(RestockOrderDTO::getTotalQuantity).toList(), contains(60, 60, 30));
+        assertThat(plan.getTotalQuantity(), is(150));
+    }
+
+    @Test
+    void whenCatalogIsLargeThenParallelPlanMatchesExpectedTotals() {
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            beers.add(beer(i, "Brand " + (i % 7), BeerType.values()[i % BeerType.values().length], 100, i % 100));
+        }
+        int expectedTotal = beers.stream().mapToInt(beer -> Math.max(0, 50 - beer.getQuantity())).sum();
+
+        RestockPlanDTO plan = restockPlanner.plan(snapshotOf(beers), 0.5, 1000);
+
+        assertThat(plan.getTotalQuantity(), is(expectedTotal));
+        assertThat(plan.getOrders().stream().allMatch(order -> order.getTotalQuantity() <= 1000), is(true));
+    }
+
+    @Test
+    void whenBeersAreStreamedThenThePlanMatchesTheSnapshotPlan() {
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            beers.add(beer(i, "Brand " + (i % 7), BeerType.values()[i % BeerType.values().length], 100, i % 100));
+        }
+
+        RestockPlanDTO streamedPlan = restockPlanner.plan(streamOf(beers), 0.7, 300);
+
+        assertThat(streamedPlan, is(restockPlanner.plan(snapshotOf(beers), 0.7, 300)));
+    }
+
+    @Test
+    void whenTargetIsAWholeNumberThenFloatingPointErrorDoesNotRoundItUp() {
+        List<Beer> beers = List.of(beer(1L, "Ambev", BeerType.LAGER, 30, 0));
+
+        assertThat(restockPlanner.plan(snapshotOf(beers), 0.1, 500).getTotalQuantity(), is(3));
+        assertThat(restockPlanner.plan(streamOf(beers), 0.1, 500).getTotalQuantity(), is(3));
+        assertThat(restockPlanner.plan(snapshotOf(beers), 0.15, 500).getTotalQuantity(), is(5));
+    }
+}
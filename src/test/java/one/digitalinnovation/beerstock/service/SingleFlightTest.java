@@ -0,0 +1,117 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    @Test
+    void whenSameKeyIsLoadedConcurrentlyThenLoaderRunsOnceAndResultIsShared() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object sharedResult = new Object();
+
+        List<Future<Object>> results = runConcurrently(() -> singleFlight.execute("Brahma", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return sharedResult;
+        }), release);
+
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is(sameInstance(sharedResult)));
+        }
+        assertThat(loads.get(), is(1));
+        assertThat(singleFlight.inFlightCount(), is(0));
+    }
+
+    @Test
+    void whenResultsAreCopiedThenEveryJoinedCallerGetsItsOwnCopy() throws Exception {
+        SingleFlight<String, List<String>> copyingFlight = new SingleFlight<>(ArrayList::new);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> loadedResult = new ArrayList<>(List.of("Brahma"));
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> copyingFlight.execute("Brahma", () -> {
+                    release.await();
+                    return loadedResult;
+                })));
+            }
+            while (copyingFlight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            Set<List<String>> distinctResults = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<List<String>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS), contains("Brahma"));
+                distinctResults.add(result.get());
+            }
+            assertThat(distinctResults.size(), is(CALLERS));
+        }
+    }
+
+    @Test
+    void whenLoadFailsThenEveryWaitingCallerGetsTheException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = runConcurrently(() -> singleFlight.execute("Brahma", () -> {
+            release.await();
+            throw new BeerNotFoundException("Brahma");
+        }), release);
+
+        for (Future<Object> result : results) {
+            Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause(), is(instanceOf(BeerNotFoundException.class)));
+        }
+    }
+
+    @Test
+    void whenLoadHasFinishedThenNextCallLoadsAgain() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("Brahma", loads::incrementAndGet);
+        singleFlight.execute("Brahma", loads::incrementAndGet);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    private List<Future<Object>> runConcurrently(Callable<Object> call, CountDownLatch release)
+            throws InterruptedException {
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(call));
+            }
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+            return results;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.replica.ClientContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StockAdjustmentCombinerTest {
+
+    private static final long BEER_ID = 1L;
+    private static final int MAX = 50;
+
+    private final StockAdjustmentCombiner combiner = new StockAdjustmentCombiner();
+
+    private final AtomicInteger storedQuantity = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void whenAdjustmentsArriveConcurrentlyThenTheyAreCombinedIntoFewerWrites() throws Exception {
+        int callers = 64;
+        int rejected = 0;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BeerDTO>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return combiner.adjust(BEER_ID, 1, this::applyInMemory);
+                }));
+            }
+            start.countDown();
+            for (Future<BeerDTO> result : results) {
+                try {
+                    assertThat(result.get().getQuantity(), is(both(greaterThan(0)).and(lessThanOrEqualTo(MAX))));
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause(), is(instanceOf(BeerStockExceededException.class)));
+                    rejected++;
+                }
+            }
+        }
+
+        assertThat(storedQuantity.get(), is(MAX));
+        assertThat(rejected, is(callers - MAX));
+        assertThat(writes.get(), is(lessThan(callers)));
+    }
+
+    @Test
+    void whenAdjustmentWouldLeaveBoundsThenOnlyThatCallerIsRejected() throws Exception {
+        storedQuantity.set(5);
+
+        assertThrows(BeerStockExceededException.class, () -> combiner.adjust(BEER_ID, -10, this::applyInMemory));
+        BeerDTO decremented = combiner.adjust(BEER_ID, -5, this::applyInMemory);
+
+        assertThat(decremented.getQuantity(), is(0));
+        assertThat(storedQuantity.get(), is(0));
+    }
+
+    @Test
+    void whenAdjustmentIsQueuedThenItKeepsTheClientThatMadeIt() throws Exception {
+        List<String> clientIds = new ArrayList<>();
+        ClientContext.setCurrentClient("adjuster");
+        try {
+            combiner.adjust(BEER_ID, 1, (id, batch) -> {
+                batch.forEach(adjustment -> clientIds.add(adjustment.getClientId()));
+                applyInMemory(id, batch);
+            });
+        } finally {
+            ClientContext.clear();
+        }
+
+        assertThat(clientIds, contains("adjuster"));
+    }
+
+    @Test
+    void whenBatchFailsThenItsCallersGetTheFailureAndTheLaneIsReleased() {
+        assertThrows(IllegalStateException.class, () -> combiner.adjust(BEER_ID, 1, (id, batch) -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertThat(combiner.laneCount(), is(0));
+    }
+
+    private void applyInMemory(Long id, List<StockAdjustmentCombiner.Adjustment> batch) {
+        simulateWriteLatency();
+        int quantity = storedQuantity.get();
+        for (StockAdjustmentCombiner.Adjustment adjustment : batch) {
+            int quantityAfterAdjustment = quantity + adjustment.getDelta();
+            if (quantityAfterAdjustment < 0 || quantityAfterAdjustment > MAX) {
+                adjustment.reject(new BeerStockExceededException(id, Math.abs(adjustment.getDelta())));
+            } else {
+                quantity = quantityAfterAdjustment;
+                adjustment.accept(BeerDTO.builder().id(id).quantity(quantity).build());
+            }
+        }
+        storedQuantity.set(quantity);
+        writes.incrementAndGet();
+    }
+
+    private static void simulateWriteLatency() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}